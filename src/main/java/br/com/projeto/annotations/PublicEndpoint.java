@@ -0,0 +1,15 @@
+package br.com.projeto.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint (ou todos os endpoints de uma classe) como acessível
+ * sem token. Lido na inicialização para montar a tabela de rotas públicas.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PublicEndpoint {
+}
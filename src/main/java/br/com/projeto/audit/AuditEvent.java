@@ -0,0 +1,24 @@
+package br.com.projeto.audit;
+
+/**
+ * Evento de segurança. Nunca carrega o token nem fragmentos dele.
+ */
+public record AuditEvent(Type type, long timestamp, String subject, String path, String reason) {
+
+    public enum Type {
+        AUTH_SUCCESS,
+        AUTH_FAILURE,
+        ROLE_DENIED,
+        TOKEN_EXPIRED
+    }
+
+    public String format(){
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("type=").append(type)
+          .append(" ts=").append(timestamp);
+        if(subject != null) sb.append(" subject=").append(subject);
+        if(path != null) sb.append(" path=").append(path);
+        if(reason != null) sb.append(" reason=").append(reason);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.projeto.audit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+/**
+ * Fluxo de eventos de auditoria de segurança.
+ * As threads de requisição apenas publicam no {@link AuditRingBuffer}; uma
+ * thread em segundo plano grava os eventos no logger {@code audit}.
+ * Eventos de sucesso são amostrados; falhas são sempre publicadas. Quando o
+ * buffer está cheio o evento é descartado e contado em {@code dropped}; se o
+ * logger falhar na gravação, conta em {@code writeErrors}. Eventos de falha
+ * perdidos por qualquer dos dois motivos somam em {@code droppedFailures}.
+ */
+@ApplicationScoped
+public class AuditLog {
+
+    private static final Logger LOG = Logger.getLogger("audit");
+
+    @ConfigProperty(name = "app.audit.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @ConfigProperty(name = "app.audit.success-sample-rate", defaultValue = "1.0")
+    double successSampleRate;
+
+    private AuditRingBuffer buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder droppedFailures = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    void onStart(@Observes StartupEvent ev){
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent ev){
+        stop();
+    }
+
+    synchronized void start(){
+        if(running) return;
+        buffer = new AuditRingBuffer(bufferSize);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    synchronized void stop(){
+        if(!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void authSuccess(String subject, String path){
+        if(successSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= successSampleRate){
+            sampledOut.increment();
+            return;
+        }
+        publish(new AuditEvent(AuditEvent.Type.AUTH_SUCCESS, System.currentTimeMillis(), subject, path, null));
+    }
+
+    public void authFailure(String path, String reason){
+        publish(new AuditEvent(AuditEvent.Type.AUTH_FAILURE, System.currentTimeMillis(), null, path, reason));
+    }
+
+    public void tokenExpired(String subject){
+        publish(new AuditEvent(AuditEvent.Type.TOKEN_EXPIRED, System.currentTimeMillis(), subject, null, null));
+    }
+
+    public void roleDenied(String subject, String path, String role){
+        publish(new AuditEvent(AuditEvent.Type.ROLE_DENIED, System.currentTimeMillis(), subject, path, "role=" + role));
+    }
+
+    private void publish(AuditEvent event){
+        AuditRingBuffer b = buffer;
+        if(b != null && b.offer(event)){
+            published.increment();
+            return;
+        }
+        dropped.increment();
+        if(event.type() != AuditEvent.Type.AUTH_SUCCESS) droppedFailures.increment();
+    }
+
+    private void drainLoop(){
+        while(true){
+            AuditEvent event = buffer.poll();
+            if(event != null){
+                write(event);
+                continue;
+            }
+            if(!running) return; // buffer vazio e parada solicitada
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void write(AuditEvent event){
+        try {
+            if(event.type() == AuditEvent.Type.AUTH_SUCCESS){
+                LOG.info(event.format());
+            } else {
+                LOG.warn(event.format());
+            }
+            written.increment();
+        } catch(RuntimeException e) {
+            // Falha de escrita não pode derrubar a thread de auditoria
+            writeErrors.increment();
+            if(event.type() != AuditEvent.Type.AUTH_SUCCESS) droppedFailures.increment();
+        }
+    }
+
+    public long published(){ return published.sum(); }
+    public long written(){ return written.sum(); }
+    public long dropped(){ return dropped.sum(); }
+    public long droppedFailures(){ return droppedFailures.sum(); }
+    public long writeErrors(){ return writeErrors.sum(); }
+    public long sampledOut(){ return sampledOut.sum(); }
+    public int capacity(){ return buffer == null ? 0 : buffer.capacity(); }
+}
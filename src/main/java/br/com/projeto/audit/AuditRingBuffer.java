@@ -0,0 +1,62 @@
+package br.com.projeto.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular limitado, sem locks, com vários produtores e um único
+ * consumidor. Cada posição tem um número de sequência que indica se está
+ * livre para escrita ou pronta para leitura; quando cheio, {@link #offer}
+ * falha imediatamente em vez de bloquear.
+ */
+final class AuditRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // acessado apenas pelo consumidor
+
+    AuditRingBuffer(int requestedCapacity){
+        int cap = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.slots = new AtomicReferenceArray<>(cap);
+        this.sequences = new AtomicLongArray(cap);
+        for(int i = 0; i < cap; i++) sequences.set(i, i);
+    }
+
+    boolean offer(AuditEvent event){
+        while(true){
+            long t = tail.get();
+            int idx = (int) (t & mask);
+            long diff = sequences.get(idx) - t;
+            if(diff == 0){
+                if(tail.compareAndSet(t, t + 1)){
+                    slots.lazySet(idx, event);
+                    sequences.set(idx, t + 1);
+                    return true;
+                }
+            } else if(diff < 0){
+                return false; // cheio
+            }
+            // Outro produtor ocupou a posição; tentar novamente
+        }
+    }
+
+    AuditEvent poll(){
+        int idx = (int) (head & mask);
+        if(sequences.get(idx) != head + 1) return null;
+        AuditEvent event = slots.get(idx);
+        slots.lazySet(idx, null);
+        sequences.set(idx, head + capacity);
+        head++;
+        return event;
+    }
+
+    int capacity(){
+        return capacity;
+    }
+}
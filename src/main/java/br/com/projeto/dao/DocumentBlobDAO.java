@@ -0,0 +1,38 @@
+package br.com.projeto.dao;
+
+import java.util.List;
+import java.util.Optional;
+
+import br.com.projeto.models.DocumentBlob;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class DocumentBlobDAO implements PanacheRepository<DocumentBlob> {
+    public Optional<DocumentBlob> findBySha256(String sha256){
+        return find("sha256", sha256).firstResultOptional();
+    }
+    // Incremento/decremento atômicos no banco: sem leitura prévia nem lock explícito
+    public boolean retain(String sha256){
+        return update("refCount = refCount + 1, releasedAt = null where sha256 = ?1", sha256) > 0;
+    }
+    public boolean release(String sha256, long now){
+        return update("refCount = refCount - 1, releasedAt = ?2 where sha256 = ?1 and refCount > 0", sha256, now) > 0;
+    }
+    public boolean attachPreview(String sha256, String previewKey){
+        return update("previewKey = ?2 where sha256 = ?1 and previewKey is null", sha256, previewKey) > 0;
+    }
+    public boolean markPreviewFailed(String sha256){
+        return update("previewFailed = true where sha256 = ?1", sha256) > 0;
+    }
+    public List<String> listReclaimable(long releasedBefore, int limit){
+        return getEntityManager()
+            .createQuery("select b.sha256 from DocumentBlob b where b.refCount = 0 and b.releasedAt <= :before order by b.releasedAt", String.class)
+            .setParameter("before", releasedBefore)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    public boolean deleteIfUnreferenced(String sha256, long releasedBefore){
+        return delete("sha256 = ?1 and refCount = 0 and releasedAt <= ?2", sha256, releasedBefore) > 0;
+    }
+}
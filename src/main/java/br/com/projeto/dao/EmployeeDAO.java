@@ -1,8 +1,11 @@
 package br.com.projeto.dao;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.hibernate.jpa.HibernateHints;
+
 import br.com.projeto.models.Employee;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -15,4 +18,27 @@ public class EmployeeDAO implements PanacheRepository<Employee> {
     public Optional<Employee> findByUserId(UUID userId){
         return find("userId", userId).firstResultOptional();
     }
+    /**
+     * Página por chave em ordem de id, a partir de {@code after} exclusivo,
+     * somente leitura. {@code managerId} nulo = todos os funcionários.
+     */
+    public List<Employee> listPage(UUID managerId, UUID after, int limit){
+        String jpql = "select e from Employee e";
+        String sep = " where ";
+        if(managerId != null){
+            jpql += sep + "e.managerId = :managerId";
+            sep = " and ";
+        }
+        if(after != null) jpql += sep + "e.id > :after";
+        jpql += " order by e.id";
+        var q = getEntityManager().createQuery(jpql, Employee.class)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setMaxResults(limit);
+        if(managerId != null) q.setParameter("managerId", managerId);
+        if(after != null) q.setParameter("after", after);
+        return q.getResultList();
+    }
+    public long countByManager(UUID managerId){
+        return managerId == null ? count() : count("managerId", managerId);
+    }
 }
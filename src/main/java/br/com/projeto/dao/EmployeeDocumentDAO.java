@@ -0,0 +1,112 @@
+package br.com.projeto.dao;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import br.com.projeto.models.DocumentMetadata;
+import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.models.PendingDocument;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+
+@ApplicationScoped
+public class EmployeeDocumentDAO implements PanacheRepository<EmployeeDocument> {
+    // Busca pela chave única (employee_id, name), sem carregar o funcionário
+    public Optional<EmployeeDocument> findByEmployeeAndName(UUID employeeId, String name){
+        return find("employee.id = ?1 and name = ?2", employeeId, name).firstResultOptional();
+    }
+    // Mesma busca com a linha travada até o fim da transação (substituição de conteúdo)
+    public Optional<EmployeeDocument> findByEmployeeAndNameForUpdate(UUID employeeId, String name){
+        return find("employee.id = ?1 and name = ?2", employeeId, name)
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .firstResultOptional();
+    }
+    public boolean existsByEmployeeAndName(UUID employeeId, String name){
+        return count("employee.id = ?1 and name = ?2", employeeId, name) > 0;
+    }
+    // Nomes do lote que o funcionário já usa, numa consulta só
+    public List<String> listExistingNames(UUID employeeId, Collection<String> names){
+        return getEntityManager()
+            .createQuery("select d.name from EmployeeDocument d where d.employee.id = :employeeId and d.name in :names", String.class)
+            .setParameter("employeeId", employeeId)
+            .setParameter("names", names)
+            .getResultList();
+    }
+    /**
+     * Candidatos de uma aprovação em lote: id, employeeId, nome e gestor do
+     * funcionário de cada documento com funcionário e nome entre os
+     * informados. Quem chama filtra os pares que não foram pedidos.
+     */
+    public List<Object[]> listApprovalTargets(Collection<UUID> employeeIds, Collection<String> names){
+        return getEntityManager()
+            .createQuery("select d.id, d.employee.id, d.name, d.employee.managerId from EmployeeDocument d"
+                + " where d.employee.id in :employeeIds and d.name in :names", Object[].class)
+            .setParameter("employeeIds", employeeIds)
+            .setParameter("names", names)
+            .getResultList();
+    }
+    public int setApproved(Collection<UUID> ids, boolean approved){
+        return update("approved = ?1 where id in ?2", approved, ids);
+    }
+    // UPDATE direto de uma linha; retorna quantas linhas foram alteradas
+    public int approve(UUID employeeId, String name, boolean approved){
+        return update("approved = ?3 where employee.id = ?1 and name = ?2", employeeId, name, approved);
+    }
+    /**
+     * Metadados dos documentos dos funcionários informados, numa única
+     * consulta por projeção (sem entidades no contexto de persistência).
+     */
+    public List<DocumentMetadata> listMetadata(Collection<UUID> employeeIds){
+        return getEntityManager()
+            .createQuery("select new br.com.projeto.models.DocumentMetadata(d.employee.id, d.name, d.approved, d.fileName,"
+                + " d.contentType, d.fileSize, d.storedSize, d.previewKey, d.sha256, d.storageKey, d.contentEncoding, d.uploadedAt)"
+                + " from EmployeeDocument d"
+                + " where d.employee.id in :ids order by d.uploadedAt, d.name", DocumentMetadata.class)
+            .setParameter("ids", employeeIds)
+            .getResultList();
+    }
+    /**
+     * Documentos pendentes de aprovação em ordem de envio, a partir da
+     * posição ({@code afterAt}, {@code afterId}) exclusiva. Sem gestor, lista
+     * todos; com gestor, só a equipe dele.
+     */
+    public List<PendingDocument> listPending(UUID managerId, Instant afterAt, UUID afterId, int limit){
+        String jpql = "select new br.com.projeto.models.PendingDocument(d.id, d.employee.id, d.name, d.fileName,"
+            + " d.contentType, d.fileSize, d.previewKey, d.sha256, d.uploadedAt)"
+            + " from EmployeeDocument d where d.approved is null";
+        if(managerId != null) jpql += " and d.employee.managerId = :managerId";
+        if(afterAt != null) jpql += " and (d.uploadedAt > :afterAt or (d.uploadedAt = :afterAt and d.id > :afterId))";
+        jpql += " order by d.uploadedAt, d.id";
+        var q = getEntityManager().createQuery(jpql, PendingDocument.class).setMaxResults(limit);
+        if(managerId != null) q.setParameter("managerId", managerId);
+        if(afterAt != null){
+            q.setParameter("afterAt", afterAt);
+            q.setParameter("afterId", afterId);
+        }
+        return q.getResultList();
+    }
+    // A miniatura é do conteúdo: vale para todos os documentos com o mesmo hash
+    public int attachPreview(String sha256, String previewKey){
+        return update("previewKey = ?2 where sha256 = ?1 and previewKey is null", sha256, previewKey);
+    }
+    /**
+     * Documentos de imagem ainda sem miniatura, apenas com sha256,
+     * storageKey, fileSize e contentEncoding. Conteúdos repetidos podem
+     * aparecer mais de uma vez; conteúdos cujo blob tem
+     * {@code document_blobs.previewFailed} ficam de fora.
+     */
+    public List<Object[]> listMissingPreview(Collection<String> contentTypes, int limit){
+        // Conteúdos que o ImageIO já recusou ficam marcados no blob e saem da varredura
+        return getEntityManager().createQuery(
+                "select d.sha256, d.storageKey, d.fileSize, d.contentEncoding from EmployeeDocument d, DocumentBlob b"
+                + " where b.sha256 = d.sha256 and b.previewFailed = false"
+                + " and d.previewKey is null and d.contentType in :types", Object[].class)
+            .setParameter("types", contentTypes)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.projeto.dao;
+
+import java.util.List;
+
+import br.com.projeto.models.RevokedToken;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class RevokedTokenDAO implements PanacheRepository<RevokedToken> {
+    public boolean existsByJti(String jti){
+        return count("jti", jti) > 0;
+    }
+    public List<RevokedToken> listActive(long now){
+        return list("expiresAt > ?1", now);
+    }
+    public long deleteExpired(long now){
+        return delete("expiresAt <= ?1", now);
+    }
+}
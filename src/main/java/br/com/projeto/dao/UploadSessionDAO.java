@@ -0,0 +1,29 @@
+package br.com.projeto.dao;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import br.com.projeto.models.UploadSession;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class UploadSessionDAO implements PanacheRepository<UploadSession> {
+    public Optional<UploadSession> findByIdOptional(UUID id){
+        return find("id", id).firstResultOptional();
+    }
+    // Só avança se ninguém confirmou outro pedaço no meio tempo
+    public boolean advance(UUID id, long from, long to, long now){
+        return update("committedOffset = ?3, updatedAt = ?4 where id = ?1 and committedOffset = ?2", id, from, to, now) > 0;
+    }
+    public long countByCreator(UUID userId){
+        return count("createdBy", userId);
+    }
+    public List<UploadSession> listIdleSince(long before, int limit){
+        return find("updatedAt < ?1", before).page(0, limit).list();
+    }
+    public boolean deleteByIdIfPresent(UUID id){
+        return delete("id", id) > 0;
+    }
+}
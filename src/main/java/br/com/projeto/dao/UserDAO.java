@@ -1,5 +1,6 @@
 package br.com.projeto.dao;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +16,34 @@ public class UserDAO implements PanacheRepository<User> {
     public Optional<User> findByIdOptional(UUID id){
         return find("id", id).firstResultOptional();
     }
+    public Optional<String> findRoleById(UUID id){
+        return getEntityManager()
+            .createQuery("select u.role from User u where u.id = :id", String.class)
+            .setParameter("id", id)
+            .getResultStream().findFirst();
+    }
+    public Optional<UUID> findIdByUsername(String username){
+        return getEntityManager()
+            .createQuery("select u.id from User u where u.username = :username", UUID.class)
+            .setParameter("username", username)
+            .getResultStream().findFirst();
+    }
+    /**
+     * Página de usuários ordenada por username (keyset), trazendo apenas
+     * id, username e role. {@code afterUsername} e {@code prefix} são opcionais.
+     */
+    public List<Object[]> listPublicPage(String afterUsername, String prefix, int limit){
+        StringBuilder jpql = new StringBuilder("select u.id, u.username, u.role from User u where 1 = 1");
+        if(afterUsername != null) jpql.append(" and u.username > :after");
+        if(prefix != null && !prefix.isEmpty()) jpql.append(" and u.username like :prefix escape '\\'");
+        jpql.append(" order by u.username");
+        var q = getEntityManager().createQuery(jpql.toString(), Object[].class).setMaxResults(limit);
+        if(afterUsername != null) q.setParameter("after", afterUsername);
+        if(prefix != null && !prefix.isEmpty()) q.setParameter("prefix", escapeLike(prefix) + "%");
+        return q.getResultList();
+    }
+
+    private static String escapeLike(String s){
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
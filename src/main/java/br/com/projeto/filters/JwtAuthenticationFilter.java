@@ -2,12 +2,17 @@ package br.com.projeto.filters;
 
 import java.io.IOException;
 
+import br.com.projeto.audit.AuditLog;
+import br.com.projeto.service.TokenRevocationService;
 import br.com.projeto.utils.JwtUtil;
+import br.com.projeto.utils.TokenCache;
 import jakarta.annotation.Priority;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.Provider;
 
@@ -18,31 +23,35 @@ public class JwtAuthenticationFilter implements ContainerRequestFilter {
     @Inject
     JwtUtil jwtUtil;
 
+    @Inject
+    TokenCache tokenCache;
+
+    @Inject
+    PublicEndpoints publicEndpoints;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Inject
+    TokenRevocationService revocationService;
+
+    @Inject
+    AuditLog auditLog;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         String path = requestContext.getUriInfo().getPath();
         
-        // Normalizar path (remover barra inicial se existir)
-        if(path.startsWith("/")) {
-            path = path.substring(1);
-        }
-        
-        // Permitir acesso a arquivos estáticos e rotas SPA (não começam com "api/")
-        if(!path.startsWith("api/")) {
-            return;
-        }
-        
-        // Permitir apenas rotas de autenticação específicas (públicas)
-        if(path.equals("api/auth/has-admin") || 
-           path.equals("api/auth/login") || 
-           path.equals("api/auth/register") || 
-           path.equals("api/auth/admin")) {
+        // Filtro pós-roteamento: vale o @PublicEndpoint do método que o JAX-RS casou.
+        // Qualquer outro caso exige token (sem lista paralela de rotas)
+        if(publicEndpoints.allows(resourceInfo.getResourceMethod(), path)) {
             return;
         }
         
         // Extrair token do header Authorization
         String authHeader = requestContext.getHeaderString("Authorization");
         if(authHeader == null || !authHeader.startsWith("Bearer ")) {
+            auditLog.authFailure(path, "missing_token");
             requestContext.abortWith(
                 Response.status(Response.Status.UNAUTHORIZED)
                     .entity("{\"error\":\"Token não fornecido\"}")
@@ -52,9 +61,14 @@ public class JwtAuthenticationFilter implements ContainerRequestFilter {
         }
         
         String token = authHeader.substring(7);
-        JwtUtil.TokenPayload payload = jwtUtil.validateToken(token);
-        
+        JwtUtil.TokenPayload payload = tokenCache.get(token);
         if(payload == null) {
+            payload = jwtUtil.validateToken(token, path);
+            if(payload != null) tokenCache.put(token, payload);
+        }
+        
+        if(payload == null || revocationService.isRevoked(payload.jti)) {
+            if(payload != null) auditLog.authFailure(path, "revoked_token");
             requestContext.abortWith(
                 Response.status(Response.Status.UNAUTHORIZED)
                     .entity("{\"error\":\"Token inválido ou expirado\"}")
@@ -63,9 +77,13 @@ public class JwtAuthenticationFilter implements ContainerRequestFilter {
             return;
         }
         
+        auditLog.authSuccess(payload.username, path);
+        
         // Adicionar informações do usuário ao contexto da requisição
         requestContext.setProperty("userId", payload.id);
         requestContext.setProperty("username", payload.username);
         requestContext.setProperty("userRole", payload.role);
+        requestContext.setProperty("tokenId", payload.jti);
+        requestContext.setProperty("tokenExp", payload.exp);
     }
 }
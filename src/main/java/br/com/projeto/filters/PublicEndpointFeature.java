@@ -0,0 +1,38 @@
+package br.com.projeto.filters;
+
+import java.lang.reflect.Method;
+
+import br.com.projeto.annotations.PublicEndpoint;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Registra em {@link PublicEndpoints}, durante a inicialização, os endpoints
+ * anotados com {@link PublicEndpoint} (no método ou na classe).
+ */
+@Provider
+public class PublicEndpointFeature implements DynamicFeature {
+
+    @Inject
+    PublicEndpoints publicEndpoints;
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        Method method = resourceInfo.getResourceMethod();
+        Class<?> resourceClass = resourceInfo.getResourceClass();
+        if(method == null || resourceClass == null) return;
+
+        boolean isPublic = method.isAnnotationPresent(PublicEndpoint.class)
+            || resourceClass.isAnnotationPresent(PublicEndpoint.class);
+        if(!isPublic) return;
+
+        Path classPath = resourceClass.getAnnotation(Path.class);
+        Path methodPath = method.getAnnotation(Path.class);
+        String template = (classPath == null ? "" : classPath.value()) + "/" + (methodPath == null ? "" : methodPath.value());
+        publicEndpoints.add(method, PublicEndpoints.isApiPath(template));
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.projeto.filters;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Métodos de recurso anotados com {@code @PublicEndpoint}, registrados na
+ * inicialização por {@link PublicEndpointFeature}. A decisão usa o método
+ * que o JAX-RS efetivamente casou com a requisição, sem um segundo
+ * roteamento. Paths {@code api/} continuam exigindo token, a menos que o
+ * próprio endpoint público esteja declarado sob {@code /api}: o curinga da
+ * SPA não abre rotas da API.
+ */
+@ApplicationScoped
+public class PublicEndpoints {
+
+    // método -> template declarado começa com /api
+    private final Map<Method, Boolean> publicMethods = new ConcurrentHashMap<>();
+
+    void add(Method method, boolean underApi){
+        publicMethods.put(method, underApi);
+    }
+
+    public boolean allows(Method matched, String path){
+        if(matched == null) return false;
+        Boolean underApi = publicMethods.get(matched);
+        if(underApi == null) return false;
+        return underApi || !isApiPath(path);
+    }
+
+    static boolean isApiPath(String path){
+        int i = 0;
+        while(i < path.length() && path.charAt(i) == '/') i++;
+        return path.startsWith("api/", i) || path.length() - i == 3 && path.startsWith("api", i);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.projeto.filters;
+
+import java.lang.reflect.Method;
+
+import br.com.projeto.annotations.RequireRole;
+import br.com.projeto.audit.AuditLog;
+import br.com.projeto.utils.Roles;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Resolve o {@link RequireRole} de cada endpoint uma única vez, na
+ * inicialização, e registra um {@link RoleAuthorizationFilter} com a máscara
+ * de papéis já calculada. Um papel desconhecido impede a aplicação de subir.
+ */
+@Provider
+public class RoleAuthorizationFeature implements DynamicFeature {
+
+    @Inject
+    AuditLog auditLog;
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        Method method = resourceInfo.getResourceMethod();
+        if(method == null) return;
+
+        RequireRole requireRole = method.getAnnotation(RequireRole.class);
+        if(requireRole == null) {
+            requireRole = resourceInfo.getResourceClass().getAnnotation(RequireRole.class);
+        }
+        if(requireRole == null) return;
+
+        int mask;
+        try {
+            mask = Roles.mask(requireRole.value());
+        } catch(IllegalArgumentException e) {
+            throw new IllegalStateException("@RequireRole inválido em "
+                + resourceInfo.getResourceClass().getName() + "." + method.getName() + ": " + e.getMessage(), e);
+        }
+        context.register(new RoleAuthorizationFilter(mask, requireRole.value(), auditLog), Priorities.AUTHORIZATION);
+    }
+}
@@ -1,55 +1,42 @@
 package br.com.projeto.filters;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.util.Arrays;
 
-import br.com.projeto.annotations.RequireRole;
-import jakarta.annotation.Priority;
-import jakarta.ws.rs.Priorities;
+import br.com.projeto.audit.AuditLog;
+import br.com.projeto.utils.Roles;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
-import jakarta.ws.rs.container.ResourceInfo;
-import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
-import jakarta.ws.rs.ext.Provider;
 
-@Provider
-@Priority(Priorities.AUTHORIZATION)
+/**
+ * Filtro de autorização de um endpoint. Criado por {@link RoleAuthorizationFeature}
+ * com a máscara de papéis exigidos, de modo que a checagem por requisição
+ * é um único AND.
+ */
 public class RoleAuthorizationFilter implements ContainerRequestFilter {
 
-    @Context
-    ResourceInfo resourceInfo;
+    private final int requiredMask;
+    private final String[] requiredRoles;
+    private final AuditLog auditLog;
+
+    public RoleAuthorizationFilter(int requiredMask, String[] requiredRoles, AuditLog auditLog) {
+        this.requiredMask = requiredMask;
+        this.requiredRoles = requiredRoles;
+        this.auditLog = auditLog;
+    }
 
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
-        Method method = resourceInfo.getResourceMethod();
-        
-        if(method == null) return;
-        
-        RequireRole requireRole = method.getAnnotation(RequireRole.class);
-        if(requireRole == null) {
-            requireRole = resourceInfo.getResourceClass().getAnnotation(RequireRole.class);
-        }
-        
-        if(requireRole == null) return;
-        
         String userRole = (String) requestContext.getProperty("userRole");
-        String[] requiredRoles = requireRole.value();
-        
-        System.out.println("🔐 Endpoint: " + requestContext.getUriInfo().getPath());
-        System.out.println("🔐 User role: " + userRole);
-        System.out.println("🔐 Required roles: " + Arrays.toString(requiredRoles));
         
-        if(userRole == null || !Arrays.asList(requireRole.value()).contains(userRole)) {
-            System.out.println("❌ Acesso negado!");
+        if((Roles.bit(userRole) & requiredMask) == 0) {
+            auditLog.roleDenied((String) requestContext.getProperty("username"), requestContext.getUriInfo().getPath(), userRole);
             requestContext.abortWith(
                 Response.status(Response.Status.FORBIDDEN)
                     .entity("{\"error\":\"Acesso negado. Permissão insuficiente. Requer: " + Arrays.toString(requiredRoles) + ", Possui: " + userRole + "\"}")
                     .build()
             );
-        } else {
-            System.out.println("✅ Acesso permitido!");
         }
     }
 }
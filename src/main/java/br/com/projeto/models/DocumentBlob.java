@@ -0,0 +1,63 @@
+package br.com.projeto.models;
+
+import br.com.projeto.storage.ContentEncoding;
+import br.com.projeto.storage.StoredBlob;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Conteúdo armazenado por endereçamento (chave = SHA-256), compartilhado
+ * entre linhas de {@code employee_documents}. {@code refCount} conta quantos
+ * documentos apontam para ele; com zero referências o objeto fica elegível
+ * para coleta depois do período de carência.
+ */
+@Entity
+@Table(name = "document_blobs", indexes = @Index(name = "idx_document_blobs_ref_count_released_at", columnList = "ref_count, released_at"))
+public class DocumentBlob extends PanacheEntityBase {
+
+    @Id
+    @Column(length = 64)
+    public String sha256; // hash do conteúdo original
+
+    @Column(name = "storage_key", nullable = false)
+    public String storageKey; // chave no DocumentStorage (derivada do hash e da codificação)
+
+    @Column(nullable = false)
+    public long size; // tamanho original em bytes
+
+    @Column(name = "stored_size", nullable = false)
+    public long storedSize; // bytes efetivamente gravados
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    public ContentEncoding encoding;
+
+    @Column(name = "preview_key")
+    public String previewKey; // miniatura JPEG no DocumentStorage (só imagens)
+
+    @Column(name = "preview_failed", nullable = false)
+    public boolean previewFailed; // o ImageIO não conseguiu ler o conteúdo; não tentar de novo
+
+    @Column(name = "ref_count", nullable = false)
+    public long refCount;
+
+    @Column(name = "released_at")
+    public Long releasedAt; // última liberação de referência (epoch em ms)
+
+    public static DocumentBlob of(StoredBlob stored){
+        DocumentBlob b = new DocumentBlob();
+        b.sha256 = stored.sha256();
+        b.storageKey = stored.key();
+        b.size = stored.size();
+        b.storedSize = stored.storedSize();
+        b.encoding = stored.encoding();
+        b.refCount = 1;
+        return b;
+    }
+}
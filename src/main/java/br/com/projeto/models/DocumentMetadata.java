@@ -0,0 +1,14 @@
+package br.com.projeto.models;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import br.com.projeto.storage.ContentEncoding;
+
+/**
+ * Projeção somente leitura de {@link EmployeeDocument} para listagens: só os
+ * metadados exibidos, sem carregar a entidade nem tocar no conteúdo.
+ */
+public record DocumentMetadata(UUID employeeId, String name, Boolean approved, String fileName, String contentType,
+                               Long fileSize, Long storedSize, String previewKey, String sha256,
+                               String storageKey, ContentEncoding contentEncoding, Instant uploadedAt) {}
@@ -9,12 +9,14 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 
 @Entity
-@Table(name = "employees")
+// Listagem paginada da equipe percorre (manager_id, id) na ordem do índice
+@Table(name = "employees", indexes = @Index(name = "idx_employees_manager_id", columnList = "manager_id, id"))
 public class Employee extends PanacheEntityBase {
 
     @Id
@@ -29,7 +31,8 @@ public class Employee extends PanacheEntityBase {
     @Column(name = "manager_id")
     public UUID managerId; // opcional: userId do gestor
 
-    @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // LAZY: listagens usam a projeção DocumentMetadata em vez da coleção
+    @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     public List<EmployeeDocument> documents = new ArrayList<>();
 
     public static Employee create(UUID userId, String data){
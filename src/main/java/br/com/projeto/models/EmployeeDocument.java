@@ -1,18 +1,29 @@
 package br.com.projeto.models;
 
+import java.time.Instant;
 import java.util.UUID;
 
+import br.com.projeto.storage.ContentEncoding;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 
 @Entity
-@Table(name = "employee_documents")
+// Um nome de documento por funcionário; o índice atende às buscas por (employee_id, name).
+// A fila de aprovação percorre (approved, uploaded_at, id) a partir de approved nulo.
+@Table(name = "employee_documents",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_employee_documents_employee_name", columnNames = {"employee_id", "name"}),
+    indexes = @Index(name = "idx_employee_documents_pending", columnList = "approved, uploaded_at, id"))
 public class EmployeeDocument extends PanacheEntityBase {
 
     @Id
@@ -31,23 +42,41 @@ public class EmployeeDocument extends PanacheEntityBase {
     @Column(nullable = false)
     public String contentType; // MIME type (application/pdf, image/jpeg, etc)
 
-    @Column(nullable = false)
-    public byte[] fileData; // conteúdo do arquivo
+    @Column(name = "storage_key", nullable = false)
+    public String storageKey; // chave do conteúdo no DocumentStorage
 
     @Column(nullable = false)
-    public Long fileSize; // tamanho em bytes
+    public Long fileSize; // tamanho original em bytes
+
+    @Column(name = "stored_size")
+    public Long storedSize; // bytes ocupados no armazenamento (após compressão)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_encoding", length = 16)
+    public ContentEncoding contentEncoding; // null = sem codificação
+
+    @Column(length = 64)
+    public String sha256; // hash do conteúdo (hexadecimal)
+
+    @Column(name = "preview_key")
+    public String previewKey; // miniatura JPEG, quando já gerada
+
+    @Column(name = "uploaded_at")
+    public Instant uploadedAt; // última gravação do conteúdo (Last-Modified)
 
     public Boolean approved; // null = pending
 
-    public static EmployeeDocument of(Employee employee, String name, String fileName, String contentType, byte[] fileData){
+    public static EmployeeDocument of(Employee employee, String name, String fileName, String contentType, String storageKey, long fileSize, String sha256){
         EmployeeDocument d = new EmployeeDocument();
         d.id = UUID.randomUUID();
         d.employee = employee;
         d.name = name;
         d.fileName = fileName;
         d.contentType = contentType;
-        d.fileData = fileData;
-        d.fileSize = (long) fileData.length;
+        d.storageKey = storageKey;
+        d.fileSize = fileSize;
+        d.sha256 = sha256;
+        d.uploadedAt = Instant.now();
         d.approved = null;
         return d;
     }
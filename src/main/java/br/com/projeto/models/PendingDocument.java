@@ -0,0 +1,11 @@
+package br.com.projeto.models;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Projeção de um documento aguardando aprovação ({@code approved} nulo),
+ * com o id do documento como desempate da paginação por {@code uploadedAt}.
+ */
+public record PendingDocument(UUID id, UUID employeeId, String name, String fileName, String contentType,
+                              Long fileSize, String previewKey, String sha256, Instant uploadedAt) {}
@@ -0,0 +1,26 @@
+package br.com.projeto.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken extends PanacheEntityBase {
+
+    @Id
+    public String jti; // claim jti do token revogado
+
+    @Column(name = "expires_at", nullable = false)
+    public long expiresAt; // exp do token (epoch em segundos)
+
+    public static RevokedToken of(String jti, long expiresAt){
+        RevokedToken r = new RevokedToken();
+        r.jti = jti;
+        r.expiresAt = expiresAt;
+        return r;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.projeto.models;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+
+/**
+ * Upload retomável em andamento. Os bytes ficam na área de staging do
+ * DocumentStorage; aqui fica o offset confirmado, que é a referência para
+ * o cliente retomar.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = @Index(name = "idx_upload_sessions_updated_at", columnList = "updated_at"))
+public class UploadSession extends PanacheEntityBase {
+
+    @Id
+    public UUID id;
+
+    @Column(name = "employee_id", nullable = false)
+    public UUID employeeId;
+
+    @Column(name = "created_by", nullable = false)
+    public UUID createdBy; // usuário que abriu a sessão
+
+    @Column(nullable = false)
+    public String documentName;
+
+    @Column(nullable = false)
+    public String fileName;
+
+    @Column(nullable = false)
+    public String contentType;
+
+    @Column(name = "total_size")
+    public Long totalSize; // tamanho declarado na criação (opcional)
+
+    @Column(name = "committed_offset", nullable = false)
+    public long committedOffset; // bytes confirmados
+
+    @Column(name = "created_at", nullable = false)
+    public long createdAt; // epoch em ms
+
+    @Column(name = "updated_at", nullable = false)
+    public long updatedAt; // último pedaço recebido (epoch em ms)
+
+    public static UploadSession of(UUID employeeId, UUID createdBy, String documentName, String fileName, String contentType, Long totalSize){
+        UploadSession s = new UploadSession();
+        s.id = UUID.randomUUID();
+        s.employeeId = employeeId;
+        s.createdBy = createdBy;
+        s.documentName = documentName;
+        s.fileName = fileName;
+        s.contentType = contentType;
+        s.totalSize = totalSize;
+        s.committedOffset = 0;
+        s.createdAt = System.currentTimeMillis();
+        s.updatedAt = s.createdAt;
+        return s;
+    }
+
+    /** Identificador da área de staging (hexadecimal, sem hífens). */
+    public String stagingKey(){
+        return id.toString().replace("-", "");
+    }
+}
@@ -1,17 +1,38 @@
 package br.com.projeto.rest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
+import br.com.projeto.annotations.PublicEndpoint;
 import br.com.projeto.annotations.RequireRole;
 import br.com.projeto.service.AuthService;
+import br.com.projeto.service.LoginRateLimiter;
+import br.com.projeto.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.common.annotation.Blocking;
+import io.vertx.core.http.HttpServerRequest;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 
 @Path("/api/auth")
 @Produces(MediaType.APPLICATION_JSON)
@@ -21,8 +42,22 @@ public class AuthResource {
     @Inject
     AuthService authService;
 
+    @Inject
+    TokenRevocationService revocationService;
+
+    @Inject
+    LoginRateLimiter rateLimiter;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+
     @GET
     @Path("/has-admin")
+    @PublicEndpoint
     public Response hasAdmin(){
         boolean has = authService.hasAdmin();
         return Response.ok(new HasAdmin(has)).build();
@@ -30,43 +65,137 @@ public class AuthResource {
 
     @POST
     @Path("/admin")
-    @Transactional
-    public Response createAdmin(Credentials c){
-        var res = authService.createAdmin(c.username, c.password);
-        if(res == null){
-            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Admin já existe ou dados inválidos")).build();
-        }
-        return Response.status(Response.Status.CREATED).entity(res).build();
+    @PublicEndpoint
+    @Blocking
+    public CompletionStage<Response> createAdmin(Credentials c){
+        return authService.createAdmin(c.username, c.password).thenApply(res -> {
+            if(res == null){
+                return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Admin já existe ou dados inválidos")).build();
+            }
+            return Response.status(Response.Status.CREATED).entity(res).build();
+        }).exceptionally(this::hashingFailure);
     }
 
     @POST
     @Path("/register")
-    @Transactional
-    public Response register(Credentials c){
-        var res = authService.register(c.username, c.password);
-        if(res == null){
-            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Usuário já existe ou inválido")).build();
-        }
-        return Response.status(Response.Status.CREATED).entity(res).build();
+    @PublicEndpoint
+    @Blocking
+    public CompletionStage<Response> register(Credentials c, @Context HttpServerRequest request){
+        Response throttled = throttle(c, request);
+        if(throttled != null) return CompletableFuture.completedFuture(throttled);
+        return authService.register(c.username, c.password).thenApply(res -> {
+            if(res == null){
+                return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Usuário já existe ou inválido")).build();
+            }
+            return Response.status(Response.Status.CREATED).entity(res).build();
+        }).exceptionally(this::hashingFailure);
     }
 
     @POST
     @Path("/login")
-    @Transactional
-    public Response login(Credentials c){
-        var res = authService.login(c.username, c.password);
-        if(res == null){
-            return Response.status(Response.Status.UNAUTHORIZED).entity(new ErrorMsg("Credenciais inválidas")).build();
+    @PublicEndpoint
+    @Blocking
+    public CompletionStage<Response> login(Credentials c, @Context HttpServerRequest request){
+        Response throttled = throttle(c, request);
+        if(throttled != null) return CompletableFuture.completedFuture(throttled);
+        return authService.login(c.username, c.password).thenApply(res -> {
+            if(res == null){
+                return Response.status(Response.Status.UNAUTHORIZED).entity(new ErrorMsg("Credenciais inválidas")).build();
+            }
+            return Response.ok(res).build();
+        }).exceptionally(this::hashingFailure);
+    }
+
+    @POST
+    @Path("/logout")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response logout(@Context ContainerRequestContext requestContext){
+        String tokenId = (String) requestContext.getProperty("tokenId");
+        Long tokenExp = (Long) requestContext.getProperty("tokenExp");
+        if(tokenId == null || tokenExp == null){
+            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Token sem identificador")).build();
         }
-        return Response.ok(res).build();
+        revocationService.revoke(tokenId, tokenExp);
+        return Response.noContent().build();
     }
 
+    /**
+     * Uma página de usuários em ordem de username: {@value #DEFAULT_PAGE_SIZE}
+     * por padrão, até {@value #MAX_PAGE_SIZE}. Mesmo contrato das listagens de
+     * funcionários: a continuação vem em X-Next-Cursor e no header Link
+     * (rel="next"); a exportação completa é pelo /users/stream.
+     */
     @GET
     @Path("/users")
     @RequireRole("admin")
-    public Response getAllUsers(){
-        var users = authService.getAllUsers();
-        return Response.ok(users).build();
+    public Response getAllUsers(@QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) int limit,
+                                @QueryParam("after") String after,
+                                @QueryParam("prefix") String prefix,
+                                @Context UriInfo uriInfo){
+        if(limit < 1 || limit > MAX_PAGE_SIZE){
+            return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("limit deve estar entre 1 e " + MAX_PAGE_SIZE)).build();
+        }
+        String afterUsername = null;
+        if(after != null && !after.isEmpty()){
+            var values = PageCursor.decode(after, 1);
+            if(values.isEmpty()) {
+                return Response.status(Response.Status.BAD_REQUEST).entity(new ErrorMsg("Cursor inválido")).build();
+            }
+            afterUsername = values.get()[0];
+        }
+        var page = authService.listUsers(afterUsername, prefix, limit);
+        var res = Response.ok(page.items);
+        // Cursor opaco para a próxima página (ausente na última)
+        if(page.nextAfter != null){
+            String next = PageCursor.encode(page.nextAfter);
+            res.header("X-Next-Cursor", next);
+            res.link(uriInfo.getRequestUriBuilder().replaceQueryParam("after", next).build(), "next");
+        }
+        return res.build();
+    }
+
+    @GET
+    @Path("/users/stream")
+    @Produces("application/x-ndjson")
+    @RequireRole("admin")
+    public Response streamUsers(@QueryParam("prefix") String prefix){
+        StreamingOutput body = out -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            authService.forEachUser(prefix, STREAM_BATCH_SIZE, u -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(u));
+                    writer.write('\n');
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return Response.ok(body).build();
+    }
+
+    // Checado antes de qualquer acesso ao banco ou cálculo de hash
+    private Response throttle(Credentials c, HttpServerRequest request){
+        String client = request.remoteAddress() == null ? null : request.remoteAddress().host();
+        long retryAfter = rateLimiter.tryAcquire(c == null ? null : c.username, client);
+        if(retryAfter == 0) return null;
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+            .header("Retry-After", String.valueOf(retryAfter))
+            .entity(new ErrorMsg("Muitas tentativas, tente novamente mais tarde"))
+            .build();
+    }
+
+    // Pool de hash saturado: responder rápido para o cliente tentar de novo
+    private Response hashingFailure(Throwable t){
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        if(cause instanceof RejectedExecutionException){
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .entity(new ErrorMsg("Servidor ocupado, tente novamente"))
+                .build();
+        }
+        if(cause instanceof RuntimeException re) throw re;
+        throw new CompletionException(cause);
     }
 
     @RegisterForReflection
@@ -0,0 +1,86 @@
+package br.com.projeto.rest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Intervalo de bytes de um header {@code Range} (RFC 9110), já resolvido
+ * contra o tamanho do conteúdo. {@code end} é inclusivo.
+ */
+record ByteRange(long start, long end) {
+
+    // Acima disso o header é ignorado e o conteúdo vai inteiro (200)
+    static final int MAX_RANGES = 16;
+
+    long length(){
+        return end - start + 1;
+    }
+
+    String contentRange(long total){
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+
+    /**
+     * Interpreta {@code bytes=a-b, c-, -n}. Retorna null se o header não for
+     * um range de bytes válido ou não valer a pena atendê-lo (mais de
+     * {@link #MAX_RANGES} intervalos, ou intervalos que somam mais que o
+     * conteúdo): nesses casos vai o conteúdo inteiro. Lista vazia se nenhum
+     * intervalo for satisfazível (416). Os intervalos voltam em ordem
+     * crescente, com sobrepostos e adjacentes unidos.
+     */
+    static List<ByteRange> parse(String header, long total){
+        if(header == null || !header.startsWith("bytes=")) return null;
+        String[] specs = header.substring(6).split(",");
+        if(specs.length > MAX_RANGES) return null;
+        List<ByteRange> ranges = new ArrayList<>();
+        long requested = 0;
+        for(String spec : specs){
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if(dash < 0) return null;
+            try {
+                String a = spec.substring(0, dash).trim();
+                String b = spec.substring(dash + 1).trim();
+                long start, end;
+                if(a.isEmpty()){
+                    if(b.isEmpty()) return null;
+                    long suffix = Long.parseLong(b);
+                    if(suffix <= 0) continue;
+                    start = Math.max(0, total - suffix);
+                    end = total - 1;
+                } else {
+                    start = Long.parseLong(a);
+                    end = b.isEmpty() ? total - 1 : Math.min(Long.parseLong(b), total - 1);
+                    if(start < 0 || (!b.isEmpty() && Long.parseLong(b) < start)) return null;
+                }
+                if(start >= total || end < start) continue;
+                ranges.add(new ByteRange(start, end));
+                requested += end - start + 1;
+            } catch(NumberFormatException e) {
+                return null;
+            }
+        }
+        if(requested > total) return null;
+        return merge(ranges);
+    }
+
+    // Ordena e une intervalos sobrepostos ou adjacentes
+    static List<ByteRange> merge(List<ByteRange> ranges){
+        if(ranges.size() < 2) return ranges;
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        ByteRange cur = ranges.get(0);
+        for(int i = 1; i < ranges.size(); i++){
+            ByteRange r = ranges.get(i);
+            if(r.start() <= cur.end() + 1){
+                cur = new ByteRange(cur.start(), Math.max(cur.end(), r.end()));
+            } else {
+                merged.add(cur);
+                cur = r;
+            }
+        }
+        merged.add(cur);
+        return merged;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.projeto.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import br.com.projeto.storage.BlobContent;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Exportação de documentos em ZIP, gerada em streaming direto na resposta.
+ * Cada documento é lido do armazenamento em sequência com um buffer fixo,
+ * então a memória não depende do tamanho total exportado. Conteúdos que já
+ * são comprimidos (imagens, vídeos, arquivos compactados) entram sem
+ * recompressão.
+ */
+final class DocumentArchive {
+
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    record Entry(String path, BlobContent content, String contentType, Instant modified) {}
+
+    private DocumentArchive(){}
+
+    static StreamingOutput zip(List<Entry> entries){
+        return out -> {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            byte[] buf = new byte[COPY_BUFFER];
+            Set<String> used = new HashSet<>();
+            for(Entry e : entries){
+                InputStream in;
+                try {
+                    in = e.content().open();
+                } catch(NoSuchFileException missing) {
+                    continue; // conteúdo ausente não interrompe a exportação
+                }
+                try(in) {
+                    ZipEntry ze = new ZipEntry(unique(e.path(), used));
+                    if(e.modified() != null) ze.setLastModifiedTime(FileTime.from(e.modified()));
+                    zip.setLevel(alreadyCompressed(e.contentType()) ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+                    zip.putNextEntry(ze);
+                    int n;
+                    while((n = in.read(buf)) > 0){
+                        zip.write(buf, 0, n);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            zip.finish();
+            zip.flush();
+        };
+    }
+
+    /** Nome de entrada seguro: sem separadores de diretório nem {@code ..}. */
+    static String safeName(String s){
+        if(s == null || s.isBlank()) return "documento";
+        String cleaned = s.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").replace("..", "_").trim();
+        return cleaned.isEmpty() ? "documento" : cleaned;
+    }
+
+    static String entryName(String documentName, String fileName){
+        String name = safeName(documentName);
+        String file = safeName(fileName);
+        return file.equals(name) ? name : name + " - " + file;
+    }
+
+    private static String unique(String path, Set<String> used){
+        if(used.add(path)) return path;
+        int dot = path.lastIndexOf('.');
+        int slash = path.lastIndexOf('/');
+        String base = dot > slash ? path.substring(0, dot) : path;
+        String ext = dot > slash ? path.substring(dot) : "";
+        for(int i = 2; ; i++){
+            String candidate = base + " (" + i + ")" + ext;
+            if(used.add(candidate)) return candidate;
+        }
+    }
+
+    private static boolean alreadyCompressed(String contentType){
+        if(contentType == null) return false;
+        String t = contentType.toLowerCase(Locale.ROOT);
+        return t.startsWith("image/") || t.startsWith("video/") || t.startsWith("audio/")
+            || t.contains("zip") || t.contains("gzip") || t.contains("compressed");
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.projeto.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.jboss.resteasy.reactive.PathPart;
+
+import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.storage.BlobContent;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Monta a resposta de download de um documento: GET condicional (ETag forte
+ * derivado do SHA-256 e Last-Modified), ranges simples e múltiplos (206) e
+ * envio zero-copy quando o conteúdo está em disco local.
+ */
+final class DocumentDownload {
+
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    private DocumentDownload(){}
+
+    static EntityTag etagOf(EmployeeDocument doc){
+        return doc.sha256 == null ? null : new EntityTag(doc.sha256);
+    }
+
+    static Date lastModifiedOf(EmployeeDocument doc){
+        // HTTP trabalha com precisão de segundos
+        return doc.uploadedAt == null ? null : Date.from(doc.uploadedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    static Response build(EmployeeDocument doc, BlobContent content, Request request, HttpHeaders headers) throws IOException {
+        EntityTag etag = etagOf(doc);
+        Date lastModified = lastModifiedOf(doc);
+
+        Response.ResponseBuilder notModified = evaluatePreconditions(request, etag, lastModified);
+        if(notModified != null){
+            return withValidators(notModified, etag, lastModified).build();
+        }
+
+        long total = content.length();
+        List<ByteRange> ranges = null;
+        if(rangeApplies(headers.getHeaderString("If-Range"), etag, lastModified)){
+            ranges = ByteRange.parse(headers.getHeaderString("Range"), total);
+        }
+
+        Response.ResponseBuilder rb;
+        if(ranges == null){
+            rb = Response.ok(fullBody(content))
+                .header("Content-Type", doc.contentType)
+                .header("Content-Length", total);
+        } else if(ranges.isEmpty()){
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header("Content-Range", "bytes */" + total)
+                .build();
+        } else if(ranges.size() == 1){
+            ByteRange r = ranges.get(0);
+            rb = Response.status(Response.Status.PARTIAL_CONTENT)
+                .entity(rangeBody(content, r))
+                .header("Content-Type", doc.contentType)
+                .header("Content-Range", r.contentRange(total))
+                .header("Content-Length", r.length());
+        } else {
+            String boundary = UUID.randomUUID().toString().replace("-", "");
+            rb = Response.status(Response.Status.PARTIAL_CONTENT)
+                .entity(multipartBody(content, ranges, doc.contentType, boundary))
+                .header("Content-Type", "multipart/byteranges; boundary=" + boundary);
+        }
+
+        return withValidators(rb, etag, lastModified)
+            .header("Accept-Ranges", "bytes")
+            .header("Content-Disposition", "attachment; filename=\"" + doc.fileName + "\"")
+            .build();
+    }
+
+    /** Versão da miniatura: prefixo do hash do conteúdo que a originou. */
+    static String previewVersion(String sha256){
+        return sha256 == null ? null : sha256.substring(0, 16);
+    }
+
+    /**
+     * Resposta da miniatura. Com {@code ?v=} igual à versão atual a URL
+     * identifica um conteúdo imutável e pode ficar em cache por um ano; sem
+     * ela o cliente revalida com o ETag a cada uso.
+     */
+    static Response preview(EmployeeDocument doc, BlobContent preview, String version, Request request) throws IOException {
+        String current = previewVersion(doc.sha256);
+        EntityTag etag = current == null ? null : new EntityTag("p-" + current);
+        String cacheControl = current != null && current.equals(version)
+            ? "private, max-age=31536000, immutable"
+            : "private, no-cache";
+
+        Response.ResponseBuilder notModified = etag == null ? null : request.evaluatePreconditions(etag);
+        if(notModified != null){
+            return notModified.tag(etag).header("Cache-Control", cacheControl).build();
+        }
+        Response.ResponseBuilder rb = Response.ok(fullBody(preview))
+            .header("Content-Type", "image/jpeg")
+            .header("Content-Length", preview.length())
+            .header("Cache-Control", cacheControl);
+        if(etag != null) rb.tag(etag);
+        return rb.build();
+    }
+
+    // If-None-Match / If-Modified-Since; retorna o builder do 304 ou null
+    private static Response.ResponseBuilder evaluatePreconditions(Request request, EntityTag etag, Date lastModified){
+        if(etag != null && lastModified != null) return request.evaluatePreconditions(lastModified, etag);
+        if(etag != null) return request.evaluatePreconditions(etag);
+        if(lastModified != null) return request.evaluatePreconditions(lastModified);
+        return null;
+    }
+
+    private static Response.ResponseBuilder withValidators(Response.ResponseBuilder rb, EntityTag etag, Date lastModified){
+        if(etag != null) rb.tag(etag);
+        if(lastModified != null) rb.lastModified(lastModified);
+        // Sempre revalidar: o conteúdo pode ser substituído por updateDocument
+        return rb.header("Cache-Control", "private, no-cache");
+    }
+
+    // If-Range exige comparação forte; sem If-Range o Range sempre vale
+    private static boolean rangeApplies(String ifRange, EntityTag etag, Date lastModified){
+        if(ifRange == null) return true;
+        ifRange = ifRange.trim();
+        if(ifRange.startsWith("\"") || ifRange.startsWith("W/")){
+            return etag != null && ifRange.equals(etag.toString());
+        }
+        if(lastModified == null) return false;
+        try {
+            Instant since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return since.equals(lastModified.toInstant());
+        } catch(DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static Object fullBody(BlobContent content) throws IOException {
+        Optional<Path> file = content.file();
+        if(file.isPresent()) return file.get(); // enviado com sendfile
+        return content.open();
+    }
+
+    private static Object rangeBody(BlobContent content, ByteRange r) throws IOException {
+        Optional<Path> file = content.file();
+        if(file.isPresent()) return new PathPart(file.get(), r.start(), r.length());
+        return (StreamingOutput) out -> {
+            try(InputStream in = content.open(r.start())) {
+                copy(in, out, r.length());
+            }
+        };
+    }
+
+    // Os intervalos chegam em ordem crescente e disjuntos (ByteRange.parse):
+    // conteúdo codificado é lido numa única passada do decodificador
+    private static StreamingOutput multipartBody(BlobContent content, List<ByteRange> ranges, String contentType, String boundary){
+        long total = content.length();
+        return out -> {
+            Optional<Path> file = content.file();
+            try(FileChannel ch = file.isPresent() ? FileChannel.open(file.get(), StandardOpenOption.READ) : null;
+                InputStream decoded = file.isPresent() ? null : content.open()) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long decodedPos = 0;
+                for(ByteRange r : ranges){
+                    String partHeader = "\r\n--" + boundary + "\r\n"
+                        + "Content-Type: " + contentType + "\r\n"
+                        + "Content-Range: " + r.contentRange(total) + "\r\n\r\n";
+                    out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                    if(ch != null){
+                        long pos = r.start(), remaining = r.length();
+                        while(remaining > 0){
+                            long n = ch.transferTo(pos, remaining, target);
+                            if(n <= 0) break;
+                            pos += n;
+                            remaining -= n;
+                        }
+                    } else {
+                        decoded.skipNBytes(r.start() - decodedPos);
+                        copy(decoded, out, r.length());
+                        decodedPos = r.end() + 1;
+                    }
+                }
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        };
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buf = new byte[(int) Math.min(COPY_BUFFER, Math.max(1, count))];
+        long remaining = count;
+        while(remaining > 0){
+            int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+            if(n < 0) break;
+            out.write(buf, 0, n);
+            remaining -= n;
+        }
+    }
+}
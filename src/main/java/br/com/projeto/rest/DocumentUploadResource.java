@@ -0,0 +1,224 @@
+package br.com.projeto.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+import br.com.projeto.annotations.RequireRole;
+import br.com.projeto.models.UploadSession;
+import br.com.projeto.service.EmployeeService;
+import br.com.projeto.service.UploadSessionService;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Upload retomável de documentos:
+ * <ol>
+ *   <li>{@code POST /uploads} abre a sessão;</li>
+ *   <li>{@code PUT /uploads/{id}} envia um pedaço, com o header
+ *       {@code Upload-Offset} indicando onde ele começa;</li>
+ *   <li>{@code GET /uploads/{id}} informa o offset confirmado, para retomar;</li>
+ *   <li>{@code POST /uploads/{id}/complete} cria ou substitui o documento.</li>
+ * </ol>
+ */
+@Path("/api/employees/{employeeId}/uploads")
+@Produces(MediaType.APPLICATION_JSON)
+public class DocumentUploadResource {
+
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    @Inject
+    UploadSessionService uploads;
+
+    @Inject
+    EmployeeService employeeService;
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response open(@PathParam("employeeId") String employeeId, OpenUploadReq req,
+                         @Context ContainerRequestContext requestContext){
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+
+        if(req == null || req.documentName == null || req.documentName.trim().isEmpty()
+                || req.fileName == null || req.fileName.trim().isEmpty()){
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"documentName e fileName são obrigatórios\"}").build();
+        }
+        if(req.size == null || req.size < 0) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"size é obrigatório\"}").build();
+        }
+
+        var employee = employeeService.getById(employeeId);
+        if(employee.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        // Funcionário só pode enviar documentos para o seu próprio cadastro
+        if("funcionario".equals(userRole) && !employee.get().userId.toString().equals(userId)) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\":\"Acesso negado\"}").build();
+        }
+
+        String contentType = req.contentType == null || req.contentType.isBlank() ? MediaType.APPLICATION_OCTET_STREAM : req.contentType;
+        try {
+            var r = uploads.open(employee.get().id, UUID.fromString(userId), req.documentName, req.fileName, contentType, req.size);
+            if(r.outcome() == UploadSessionService.Outcome.TOO_LARGE) {
+                return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                    .entity("{\"error\":\"Arquivo maior que " + uploads.maxSize() + " bytes\"}").build();
+            }
+            if(r.outcome() == UploadSessionService.Outcome.TOO_MANY) {
+                return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .entity("{\"error\":\"Limite de uploads em aberto atingido\"}").build();
+            }
+            UploadSession s = r.session();
+            return Response.created(URI.create("/api/employees/" + employeeId + "/uploads/" + s.id))
+                .header(UPLOAD_OFFSET, s.committedOffset)
+                .entity(dto(s))
+                .build();
+        } catch(IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao preparar upload").build();
+        }
+    }
+
+    @GET
+    @Path("/{uploadId}")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response status(@PathParam("employeeId") String employeeId, @PathParam("uploadId") String uploadId,
+                           @Context ContainerRequestContext requestContext){
+        var session = uploads.find(uploadId, employeeId, caller(requestContext));
+        if(session.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(dto(session.get()))
+            .header(UPLOAD_OFFSET, session.get().committedOffset)
+            .header("Cache-Control", "no-store")
+            .build();
+    }
+
+    @PUT
+    @Path("/{uploadId}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response appendChunk(@PathParam("employeeId") String employeeId, @PathParam("uploadId") String uploadId,
+                                @HeaderParam(UPLOAD_OFFSET) Long offset,
+                                @HeaderParam("Content-Length") Long length,
+                                InputStream chunk,
+                                @Context ContainerRequestContext requestContext){
+        var session = uploads.find(uploadId, employeeId, caller(requestContext));
+        if(session.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if(offset == null || offset < 0) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"Header Upload-Offset é obrigatório\"}").build();
+        }
+        if(length == null) {
+            return Response.status(Response.Status.LENGTH_REQUIRED).build();
+        }
+
+        UploadSessionService.AppendResult r;
+        try {
+            r = uploads.append(session.get(), offset, chunk, length);
+        } catch(IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao gravar pedaço").build();
+        }
+        return switch(r.outcome()) {
+            case OK -> Response.ok(dto(session.get())).header(UPLOAD_OFFSET, r.offset()).build();
+            case OFFSET_MISMATCH, BUSY -> Response.status(Response.Status.CONFLICT).header(UPLOAD_OFFSET, r.offset()).build();
+            case TOO_LARGE -> Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).header(UPLOAD_OFFSET, r.offset()).build();
+            default -> Response.status(Response.Status.NOT_FOUND).build();
+        };
+    }
+
+    @POST
+    @Path("/{uploadId}/complete")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response complete(@PathParam("employeeId") String employeeId, @PathParam("uploadId") String uploadId,
+                             @Context ContainerRequestContext requestContext){
+        var session = uploads.find(uploadId, employeeId, caller(requestContext));
+        if(session.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        UploadSessionService.CompleteResult r;
+        try {
+            r = uploads.complete(session.get());
+        } catch(IllegalStateException ex) {
+            // Outro envio criou um documento com o mesmo nome no meio tempo
+            return Response.status(Response.Status.CONFLICT)
+                .entity("{\"error\":\"Documento já existe\"}").build();
+        } catch(IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao processar arquivo").build();
+        }
+        return switch(r.outcome()) {
+            case OK -> Response.ok(EmployeeResource.DocumentDto.of(r.document())).build();
+            case INCOMPLETE, BUSY -> Response.status(Response.Status.CONFLICT).header(UPLOAD_OFFSET, session.get().committedOffset).build();
+            default -> Response.status(Response.Status.NOT_FOUND).build();
+        };
+    }
+
+    @DELETE
+    @Path("/{uploadId}")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response abort(@PathParam("employeeId") String employeeId, @PathParam("uploadId") String uploadId,
+                          @Context ContainerRequestContext requestContext){
+        var session = uploads.find(uploadId, employeeId, caller(requestContext));
+        if(session.isEmpty() || !uploads.abort(session.get())) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.noContent().build();
+    }
+
+    private UploadDto dto(UploadSession s){
+        return UploadDto.of(s, uploads.maxChunkSize());
+    }
+
+    private static UUID caller(ContainerRequestContext requestContext){
+        return UUID.fromString((String) requestContext.getProperty("userId"));
+    }
+
+    @RegisterForReflection
+    public static class OpenUploadReq {
+        public String documentName;
+        public String fileName;
+        public String contentType;
+        public Long size; // tamanho total do arquivo, até app.upload.max-size
+    }
+
+    @RegisterForReflection
+    public static class UploadDto {
+        public String id;
+        public String documentName;
+        public String fileName;
+        public String contentType;
+        public Long size;
+        public long offset;
+        public long maxChunkSize;
+
+        static UploadDto of(UploadSession s, long maxChunkSize){
+            UploadDto dto = new UploadDto();
+            dto.id = s.id.toString();
+            dto.documentName = s.documentName;
+            dto.fileName = s.fileName;
+            dto.contentType = s.contentType;
+            dto.size = s.totalSize;
+            dto.offset = s.committedOffset;
+            dto.maxChunkSize = maxChunkSize;
+            return dto;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package br.com.projeto.rest;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.UUID;
 
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 import org.jboss.resteasy.reactive.RestForm;
 
 import br.com.projeto.annotations.RequireRole;
+import br.com.projeto.models.DocumentMetadata;
 import br.com.projeto.models.Employee;
 import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.models.PendingDocument;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.projeto.service.EmployeeService;
 import io.quarkus.runtime.annotations.RegisterForReflection;
@@ -19,8 +24,12 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.container.ContainerRequestContext;
 
@@ -28,14 +37,17 @@ import jakarta.ws.rs.container.ContainerRequestContext;
 @Produces(MediaType.APPLICATION_JSON)
 public class EmployeeResource {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Inject
     EmployeeService employeeService;
     @Inject
     ObjectMapper objectMapper;
 
+    // Sem @Transactional: os arquivos são preparados antes, fora da transação
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
-    @Transactional
     @RequireRole({"gestor", "admin"})
     public Response create(@RestForm String userId, 
                           @RestForm String data,
@@ -45,29 +57,28 @@ public class EmployeeResource {
             return Response.status(Response.Status.BAD_REQUEST).entity("userId is required").build();
         }
         
+        // Prevenir criação de funcionário que seja gerente de si mesmo
+        if(managerId != null && !managerId.trim().isEmpty() && managerId.trim().equals(userId.trim())){
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"Não é possível atribuir o próprio usuário como gestor\"}").build();
+        }
+        
+        List<EmployeeService.PreparedDocument> documents;
+        try {
+            documents = employeeService.prepareDocuments(newDocuments(files));
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao processar arquivo: " + ex.getMessage()).build();
+        }
+        
         Employee e;
-        if(managerId != null && !managerId.trim().isEmpty()){
-            // Prevenir criação de funcionário que seja gerente de si mesmo
-            if(userId != null && managerId.trim().equals(userId.trim())){
-                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"Não é possível atribuir o próprio usuário como gestor\"}").build();
-            }
-            e = employeeService.createEmployeeForUserWithManager(userId, data, managerId);
-        } else {
-            e = employeeService.createEmployeeForUser(userId, data);
-        }
-        
-        // Adicionar documentos com arquivos
-        if(files != null && !files.isEmpty()) {
-            for(FileUpload file : files) {
-                try {
-                    byte[] fileData = java.nio.file.Files.readAllBytes(file.filePath());
-                    employeeService.addDocument(e.id.toString(), file.fileName(), file.fileName(), 
-                                               file.contentType(), fileData);
-                } catch(Exception ex) {
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity("Erro ao processar arquivo: " + file.fileName()).build();
-                }
-            }
+        try {
+            e = employeeService.createEmployee(userId, data, managerId, documents);
+        } catch(IllegalStateException ex) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity("{\"error\":\"Arquivos com o mesmo nome\"}").build();
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao processar arquivos").build();
         }
         
         return Response.status(Response.Status.CREATED).entity(toDto(e)).build();
@@ -76,32 +87,42 @@ public class EmployeeResource {
     @POST
     @Path("/self-register")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
-    @Transactional
     @RequireRole("funcionario")
     public Response selfRegister(@RestForm String data,
                                  @RestForm("files") List<FileUpload> files,
                                  @Context ContainerRequestContext requestContext){
         String userId = (String) requestContext.getProperty("userId");
         
-        Employee e = employeeService.createEmployeeForUser(userId, data);
-        
-        // Adicionar documentos com arquivos
-        if(files != null && !files.isEmpty()) {
-            for(FileUpload file : files) {
-                try {
-                    byte[] fileData = java.nio.file.Files.readAllBytes(file.filePath());
-                    employeeService.addDocument(e.id.toString(), file.fileName(), file.fileName(), 
-                                               file.contentType(), fileData);
-                } catch(Exception ex) {
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity("Error processing file: " + file.fileName()).build();
-                }
-            }
+        List<EmployeeService.PreparedDocument> documents;
+        try {
+            documents = employeeService.prepareDocuments(newDocuments(files));
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Error processing file: " + ex.getMessage()).build();
+        }
+        
+        Employee e;
+        try {
+            e = employeeService.createEmployee(userId, data, null, documents);
+        } catch(IllegalStateException ex) {
+            return Response.status(Response.Status.CONFLICT)
+                .entity("{\"error\":\"Files with the same name\"}").build();
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Error processing files").build();
         }
         
         return Response.status(Response.Status.CREATED).entity(toDto(e)).build();
     }
 
+    // Cada arquivo vira um documento com o nome do próprio arquivo
+    private static List<EmployeeService.NewDocument> newDocuments(List<FileUpload> files){
+        if(files == null) return List.of();
+        return files.stream()
+            .map(f -> new EmployeeService.NewDocument(f.fileName(), f.fileName(), f.contentType(), f.filePath()))
+            .toList();
+    }
+
     @POST
     @Path("/{employeeId}/documents")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
@@ -123,10 +144,13 @@ public class EmployeeResource {
         }
         
         try {
-            byte[] fileData = java.nio.file.Files.readAllBytes(file.filePath());
             employeeService.addDocument(employeeId, documentName, file.fileName(), 
-                                       file.contentType(), fileData);
+                                       file.contentType(), file.filePath());
             return Response.ok().build();
+        } catch(IllegalStateException ex) {
+            // Nome já usado por outro documento do funcionário: substituição é pelo /update
+            return Response.status(Response.Status.CONFLICT)
+                .entity("{\"error\":\"Documento já existe\"}").build();
         } catch(Exception ex) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("Erro ao processar arquivo").build();
@@ -154,9 +178,8 @@ public class EmployeeResource {
         }
         
         try {
-            byte[] fileData = java.nio.file.Files.readAllBytes(file.filePath());
             boolean updated = employeeService.updateDocument(employeeId, documentName, file.fileName(), 
-                                                            file.contentType(), fileData);
+                                                            file.contentType(), file.filePath());
             if(!updated) {
                 return Response.status(Response.Status.NOT_FOUND).build();
             }
@@ -173,7 +196,9 @@ public class EmployeeResource {
     @RequireRole({"funcionario", "gestor", "admin"})
     public Response downloadDocument(@PathParam("employeeId") String employeeId,
                                     @PathParam("documentName") String documentName,
-                                    @Context ContainerRequestContext requestContext){
+                                    @Context ContainerRequestContext requestContext,
+                                    @Context Request request,
+                                    @Context HttpHeaders headers){
         String userId = (String) requestContext.getProperty("userId");
         String userRole = (String) requestContext.getProperty("userRole");
         
@@ -191,12 +216,170 @@ public class EmployeeResource {
         }
         
         EmployeeDocument doc = docOpt.get();
-        return Response.ok(doc.fileData)
-            .header("Content-Type", doc.contentType)
-            .header("Content-Disposition", "attachment; filename=\"" + doc.fileName + "\"")
+        try {
+            // ETag/Last-Modified, Range e envio zero-copy ficam em DocumentDownload
+            return DocumentDownload.build(doc, employeeService.content(doc), request, headers);
+        } catch(java.nio.file.NoSuchFileException ex) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao ler arquivo").build();
+        }
+    }
+
+    @GET
+    @Path("/{employeeId}/documents/{documentName}/preview")
+    @Produces("image/jpeg")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response previewDocument(@PathParam("employeeId") String employeeId,
+                                   @PathParam("documentName") String documentName,
+                                   @QueryParam("v") String version,
+                                   @Context ContainerRequestContext requestContext,
+                                   @Context Request request){
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+        
+        // Mesmas regras do download
+        if("funcionario".equals(userRole)) {
+            var employee = employeeService.getById(employeeId);
+            if(employee.isEmpty() || !employee.get().userId.toString().equals(userId)) {
+                return Response.status(Response.Status.FORBIDDEN).entity("{\"error\":\"Acesso negado\"}").build();
+            }
+        }
+        
+        var docOpt = employeeService.getDocument(employeeId, documentName);
+        if(docOpt.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        
+        EmployeeDocument doc = docOpt.get();
+        try {
+            var preview = employeeService.preview(doc);
+            if(preview.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return DocumentDownload.preview(doc, preview.get(), version, request);
+        } catch(java.nio.file.NoSuchFileException ex) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        } catch(java.io.IOException ex) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("Erro ao ler miniatura").build();
+        }
+    }
+
+    @GET
+    @Path("/{employeeId}/documents.zip")
+    @Produces("application/zip")
+    @RequireRole({"funcionario", "gestor", "admin"})
+    public Response downloadAllDocuments(@PathParam("employeeId") String employeeId,
+                                        @Context ContainerRequestContext requestContext){
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+        
+        var employee = employeeService.getById(employeeId);
+        // Funcionário só pode baixar seus próprios documentos
+        if("funcionario".equals(userRole)) {
+            if(employee.isEmpty() || !employee.get().userId.toString().equals(userId)) {
+                return Response.status(Response.Status.FORBIDDEN).entity("{\"error\":\"Acesso negado\"}").build();
+            }
+        }
+        if(employee.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        
+        UUID id = employee.get().id;
+        List<DocumentArchive.Entry> entries = new java.util.ArrayList<>();
+        for(DocumentMetadata m : employeeService.documentMetadata(List.of(id)).getOrDefault(id, List.of())){
+            entries.add(archiveEntry("", m));
+        }
+        return zipResponse(entries, "documentos-" + id + ".zip");
+    }
+
+    @GET
+    @Path("/by-manager/{managerId}/documents.zip")
+    @Produces("application/zip")
+    @RequireRole({"gestor", "admin"})
+    public Response downloadTeamDocuments(@PathParam("managerId") String managerId,
+                                         @Context ContainerRequestContext requestContext){
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+        
+        // Gestor só pode exportar os documentos dos seus próprios funcionários
+        if("gestor".equals(userRole) && !managerId.equals(userId)) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\":\"Acesso negado\"}").build();
+        }
+        
+        List<Employee> employees = employeeService.getEmployeesByManager(managerId);
+        var metadata = employeeService.documentMetadata(employees.stream().map(e -> e.id).toList());
+        List<DocumentArchive.Entry> entries = new java.util.ArrayList<>();
+        for(Employee e : employees){
+            // Uma pasta por funcionário
+            String folder = e.id + "/";
+            for(DocumentMetadata m : metadata.getOrDefault(e.id, List.of())){
+                entries.add(archiveEntry(folder, m));
+            }
+        }
+        return zipResponse(entries, "documentos-equipe-" + DocumentArchive.safeName(managerId) + ".zip");
+    }
+
+    private DocumentArchive.Entry archiveEntry(String folder, DocumentMetadata m){
+        return new DocumentArchive.Entry(folder + DocumentArchive.entryName(m.name(), m.fileName()),
+            employeeService.content(m), m.contentType(), m.uploadedAt());
+    }
+
+    private static Response zipResponse(List<DocumentArchive.Entry> entries, String fileName){
+        return Response.ok(DocumentArchive.zip(entries))
+            .header("Content-Type", "application/zip")
+            .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+            .header("Cache-Control", "private, no-store")
             .build();
     }
 
+    @GET
+    @Path("/documents/pending")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequireRole({"gestor", "admin"})
+    public Response listPendingDocuments(@QueryParam("limit") Integer limit,
+                                         @QueryParam("after") String after,
+                                         @Context ContainerRequestContext requestContext){
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+        int size = pageSize(limit);
+        
+        Instant afterAt = null;
+        UUID afterId = null;
+        if(after != null && !after.isEmpty()){
+            String[] position = PageCursor.decode(after, 2).orElse(null);
+            try {
+                if(position == null) throw new IllegalArgumentException();
+                afterAt = Instant.parse(position[0]);
+                afterId = UUID.fromString(position[1]);
+            } catch(IllegalArgumentException | DateTimeParseException ex) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"Cursor inválido\"}").build();
+            }
+        }
+        
+        // Gestor vê só a própria equipe; admin vê a fila inteira
+        UUID managerId = "gestor".equals(userRole) ? UUID.fromString(userId) : null;
+        List<PendingDocument> rows = employeeService.pendingDocuments(managerId, afterAt, afterId, size + 1);
+        
+        PendingPage page = new PendingPage();
+        page.items = new java.util.ArrayList<>(Math.min(rows.size(), size));
+        for(PendingDocument d : rows.subList(0, Math.min(rows.size(), size))){
+            page.items.add(PendingDocumentDto.of(d));
+        }
+        if(rows.size() > size){
+            PendingDocument last = rows.get(size - 1);
+            page.next = PageCursor.encode(last.uploadedAt().toString(), last.id().toString());
+        }
+        return Response.ok(page).build();
+    }
+
+    private static int pageSize(Integer limit){
+        if(limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
     @GET
     @Path("/by-user/{userId}")
     @RequireRole({"funcionario", "gestor", "admin"})
@@ -213,7 +396,7 @@ public class EmployeeResource {
         if(employee.isEmpty()){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(toDto(employee.get())).build();
+        return Response.ok(toDtos(List.of(employee.get())).get(0)).build();
     }
 
     @POST
@@ -227,6 +410,37 @@ public class EmployeeResource {
         return Response.ok().build();
     }
 
+    @POST
+    @Path("/documents/approve")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequireRole({"gestor", "admin"})
+    public Response approveMany(BulkApproveReq req, @Context ContainerRequestContext requestContext){
+        if(req == null || req.items == null || req.items.isEmpty()){
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"items is required\"}").build();
+        }
+        if(req.items.size() > EmployeeService.MAX_BULK_APPROVALS){
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Máximo de " + EmployeeService.MAX_BULK_APPROVALS + " itens por requisição\"}").build();
+        }
+        String userId = (String) requestContext.getProperty("userId");
+        String userRole = (String) requestContext.getProperty("userRole");
+        
+        // Gestor só aprova documentos da própria equipe
+        UUID managerId = "gestor".equals(userRole) ? UUID.fromString(userId) : null;
+        List<EmployeeService.ApprovalItem> items = req.items.stream()
+            .map(i -> new EmployeeService.ApprovalItem(i.employeeId, i.name, i.approved))
+            .toList();
+        
+        BulkApproveResponse res = new BulkApproveResponse();
+        res.results = new java.util.ArrayList<>(items.size());
+        for(var r : employeeService.approveDocuments(managerId, items)){
+            if(r.outcome() == EmployeeService.ApprovalOutcome.UPDATED) res.updated++;
+            res.results.add(new ApprovalResultDto(r.employeeId(), r.name(), r.outcome().name()));
+        }
+        return Response.ok(res).build();
+    }
+
     @RegisterForReflection
     public static class AssignManagerReq { public String managerId; }
 
@@ -274,28 +488,28 @@ public class EmployeeResource {
 
     @GET
     @RequireRole({"gestor", "admin"})
-    public Response listEmployees(@Context ContainerRequestContext requestContext){
+    public Response listEmployees(@QueryParam("limit") Integer limit,
+                                  @QueryParam("after") String after,
+                                  @QueryParam("count") boolean count,
+                                  @Context UriInfo uriInfo,
+                                  @Context ContainerRequestContext requestContext){
         String userId = (String) requestContext.getProperty("userId");
         String userRole = (String) requestContext.getProperty("userRole");
         
-        List<Employee> employees;
-        
-        if("admin".equals(userRole)) {
-            // Admin vê todos
-            employees = employeeService.getAllEmployees();
-        } else {
-            // Gestor vê apenas seus funcionários
-            employees = employeeService.getEmployeesByManager(userId);
-        }
-        
-        List<EmployeeDto> dtos = employees.stream().map(this::toDto).toList();
-        return Response.ok(dtos).build();
+        // Admin vê todos; gestor vê apenas seus funcionários
+        UUID managerId = "admin".equals(userRole) ? null : UUID.fromString(userId);
+        return employeePage(managerId, limit, after, count, uriInfo);
     }
 
     @GET
     @Path("/by-manager/{managerId}")
     @RequireRole({"gestor", "admin"})
-    public Response listEmployeesByManager(@PathParam("managerId") String managerId, @Context ContainerRequestContext requestContext){
+    public Response listEmployeesByManager(@PathParam("managerId") String managerId,
+                                           @QueryParam("limit") Integer limit,
+                                           @QueryParam("after") String after,
+                                           @QueryParam("count") boolean count,
+                                           @Context UriInfo uriInfo,
+                                           @Context ContainerRequestContext requestContext){
         String userId = (String) requestContext.getProperty("userId");
         String userRole = (String) requestContext.getProperty("userRole");
         
@@ -304,15 +518,77 @@ public class EmployeeResource {
             return Response.status(Response.Status.FORBIDDEN).entity("{\"error\":\"Acesso negado\"}").build();
         }
         
-        List<Employee> employees = employeeService.getEmployeesByManager(managerId);
-        List<EmployeeDto> dtos = employees.stream().map(this::toDto).toList();
-        return Response.ok(dtos).build();
+        UUID mid;
+        try {
+            mid = UUID.fromString(managerId.trim());
+        } catch(IllegalArgumentException ex) {
+            return Response.ok(List.of()).build();
+        }
+        return employeePage(mid, limit, after, count, uriInfo);
+    }
+
+    /**
+     * Página de funcionários em ordem de id. O corpo continua sendo a lista;
+     * a próxima página vem no header Link (rel="next") e em X-Next-Cursor, e
+     * o total (com count=true) em X-Total-Count. Sem {@code limit} a página
+     * tem {@value #DEFAULT_PAGE_SIZE} itens (máximo {@value #MAX_PAGE_SIZE}):
+     * nunca há resposta com a tabela inteira, e quem não segue o cursor vê
+     * o header Link indicando que a lista continua.
+     */
+    private Response employeePage(UUID managerId, Integer limit, String after, boolean count, UriInfo uriInfo){
+        int size = pageSize(limit);
+        UUID afterId = null;
+        if(after != null && !after.isEmpty()){
+            try {
+                afterId = UUID.fromString(PageCursor.decode(after, 1).orElseThrow(IllegalArgumentException::new)[0]);
+            } catch(IllegalArgumentException ex) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\":\"Cursor inválido\"}").build();
+            }
+        }
+        
+        List<Employee> employees = employeeService.listEmployees(managerId, afterId, size + 1);
+        boolean more = employees.size() > size;
+        if(more) employees = employees.subList(0, size);
+        
+        Response.ResponseBuilder rb = Response.ok(toDtos(employees));
+        if(more){
+            String next = PageCursor.encode(employees.get(size - 1).id.toString());
+            rb.header("X-Next-Cursor", next);
+            rb.link(uriInfo.getRequestUriBuilder().replaceQueryParam("after", next).build(), "next");
+        }
+        if(count) rb.header("X-Total-Count", employeeService.countEmployees(managerId));
+        return rb.build();
     }
 
     // DTOs
     @RegisterForReflection
     public static class ApproveReq { public String name; public boolean approved; }
 
+    @RegisterForReflection
+    public static class BulkApproveItem { public String employeeId; public String name; public boolean approved; }
+
+    @RegisterForReflection
+    public static class BulkApproveReq { public List<BulkApproveItem> items; }
+
+    @RegisterForReflection
+    public static class ApprovalResultDto{
+        public String employeeId;
+        public String name;
+        public String outcome; // UPDATED, NOT_FOUND, FORBIDDEN, INVALID, DUPLICATE
+
+        public ApprovalResultDto(String employeeId, String name, String outcome){
+            this.employeeId = employeeId;
+            this.name = name;
+            this.outcome = outcome;
+        }
+    }
+
+    @RegisterForReflection
+    public static class BulkApproveResponse{
+        public int updated;
+        public List<ApprovalResultDto> results;
+    }
+
     @RegisterForReflection
     public static class EmployeeDto{
         public String id;
@@ -328,27 +604,95 @@ public class EmployeeResource {
         public Boolean approved;
         public String fileName;
         public String contentType;
-        public Long fileSize;
+        public Long fileSize; // tamanho original
+        public Long storedSize; // tamanho no armazenamento (após compressão)
+        public boolean hasPreview; // miniatura disponível em /preview
+        public String previewVersion; // muda junto com o conteúdo; use em ?v= para cache longo
         
-        public DocumentDto(String name, Boolean approved, String fileName, String contentType, Long fileSize){ 
+        public DocumentDto(String name, Boolean approved, String fileName, String contentType, Long fileSize, Long storedSize){ 
             this.name=name; 
             this.approved=approved; 
             this.fileName=fileName;
             this.contentType=contentType;
             this.fileSize=fileSize;
+            this.storedSize=storedSize;
+        }
+
+        public static DocumentDto of(EmployeeDocument d){
+            DocumentDto dto = new DocumentDto(d.name, d.approved, d.fileName, d.contentType, d.fileSize, d.storedSize);
+            dto.hasPreview = d.previewKey != null;
+            dto.previewVersion = dto.hasPreview ? DocumentDownload.previewVersion(d.sha256) : null;
+            return dto;
+        }
+
+        public static DocumentDto of(DocumentMetadata m){
+            DocumentDto dto = new DocumentDto(m.name(), m.approved(), m.fileName(), m.contentType(), m.fileSize(), m.storedSize());
+            dto.hasPreview = m.previewKey() != null;
+            dto.previewVersion = dto.hasPreview ? DocumentDownload.previewVersion(m.sha256()) : null;
+            return dto;
+        }
+    }
+
+    @RegisterForReflection
+    public static class PendingDocumentDto{
+        public String employeeId;
+        public String name;
+        public String fileName;
+        public String contentType;
+        public Long fileSize;
+        public String uploadedAt;
+        public boolean hasPreview;
+        public String previewVersion;
+
+        public static PendingDocumentDto of(PendingDocument d){
+            PendingDocumentDto dto = new PendingDocumentDto();
+            dto.employeeId = d.employeeId().toString();
+            dto.name = d.name();
+            dto.fileName = d.fileName();
+            dto.contentType = d.contentType();
+            dto.fileSize = d.fileSize();
+            dto.uploadedAt = d.uploadedAt() == null ? null : d.uploadedAt().toString();
+            dto.hasPreview = d.previewKey() != null;
+            dto.previewVersion = dto.hasPreview ? DocumentDownload.previewVersion(d.sha256()) : null;
+            return dto;
         }
     }
 
+    @RegisterForReflection
+    public static class PendingPage{
+        public List<PendingDocumentDto> items;
+        public String next; // cursor da próxima página; null na última
+    }
+
     private EmployeeDto toDto(Employee e){
+        EmployeeDto dto = toDtoWithoutDocuments(e);
+        for(var d : e.documents){
+            dto.documents.add(DocumentDto.of(d));
+        }
+        return dto;
+    }
+
+    // Listagens: documentos vêm da projeção de metadados, sem carregar entidades
+    private List<EmployeeDto> toDtos(List<Employee> employees){
+        var metadata = employeeService.documentMetadata(employees.stream().map(e -> e.id).toList());
+        List<EmployeeDto> dtos = new java.util.ArrayList<>(employees.size());
+        for(Employee e : employees){
+            EmployeeDto dto = toDtoWithoutDocuments(e);
+            for(DocumentMetadata m : metadata.getOrDefault(e.id, List.of())){
+                dto.documents.add(DocumentDto.of(m));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static EmployeeDto toDtoWithoutDocuments(Employee e){
         EmployeeDto dto = new EmployeeDto();
         dto.id = e.id.toString();
         dto.userId = e.userId.toString();
         dto.managerId = e.managerId == null ? null : e.managerId.toString();
         dto.data = e.data;
         dto.documents = new java.util.ArrayList<>();
-        for(var d : e.documents){
-            dto.documents.add(new DocumentDto(d.name, d.approved, d.fileName, d.contentType, d.fileSize));
-        }
         return dto;
     }
 }
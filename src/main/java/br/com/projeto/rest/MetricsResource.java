@@ -0,0 +1,107 @@
+package br.com.projeto.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.com.projeto.annotations.RequireRole;
+import br.com.projeto.audit.AuditLog;
+import br.com.projeto.service.DocumentBlobService;
+import br.com.projeto.service.LoginRateLimiter;
+import br.com.projeto.service.PasswordHashingService;
+import br.com.projeto.service.PreviewService;
+import br.com.projeto.service.UserDirectoryCache;
+import br.com.projeto.utils.TokenCache;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Contadores internos (caches, filas) para acompanhamento operacional.
+ */
+@Path("/api/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricsResource {
+
+    @Inject
+    TokenCache tokenCache;
+
+    @Inject
+    AuditLog auditLog;
+
+    @Inject
+    PasswordHashingService passwordHashing;
+
+    @Inject
+    LoginRateLimiter rateLimiter;
+
+    @Inject
+    UserDirectoryCache userDirectory;
+
+    @Inject
+    DocumentBlobService documentBlobs;
+
+    @Inject
+    PreviewService previews;
+
+    @GET
+    @RequireRole("admin")
+    public Response metrics(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("tokenCache", Map.of(
+            "size", tokenCache.size(),
+            "hits", tokenCache.hits(),
+            "misses", tokenCache.misses(),
+            "evictions", tokenCache.evictions()
+        ));
+        m.put("audit", Map.of(
+            "capacity", auditLog.capacity(),
+            "published", auditLog.published(),
+            "written", auditLog.written(),
+            "dropped", auditLog.dropped(),
+            "droppedFailures", auditLog.droppedFailures(),
+            "writeErrors", auditLog.writeErrors(),
+            "sampledOut", auditLog.sampledOut()
+        ));
+        m.put("passwordHashing", Map.of(
+            "active", passwordHashing.activeCount(),
+            "queued", passwordHashing.queued(),
+            "rejected", passwordHashing.rejected()
+        ));
+        m.put("loginRateLimiter", Map.of(
+            "buckets", rateLimiter.size(),
+            "allowed", rateLimiter.allowed(),
+            "throttled", rateLimiter.throttled(),
+            "evicted", rateLimiter.evicted()
+        ));
+        m.put("userDirectory", Map.of(
+            "hasAdmin", stats(userDirectory.hasAdminStats()),
+            "roleById", stats(userDirectory.roleStats()),
+            "idByUsername", stats(userDirectory.usernameStats())
+        ));
+        m.put("documentStorage", Map.of(
+            "uploads", documentBlobs.acquired(),
+            "dedupHits", documentBlobs.hits(),
+            "logicalBytes", documentBlobs.logicalBytes(),
+            "uniqueBytes", documentBlobs.uniqueBytes(),
+            "storedBytes", documentBlobs.storedBytes(),
+            "dedupRatio", documentBlobs.dedupRatio(),
+            "compressionRatio", documentBlobs.compressionRatio(),
+            "reclaimed", documentBlobs.reclaimed()
+        ));
+        m.put("previews", Map.of(
+            "generated", previews.generated(),
+            "reused", previews.reused(),
+            "failed", previews.failed(),
+            "rejected", previews.rejected(),
+            "queued", previews.queued()
+        ));
+        return Response.ok(m).build();
+    }
+
+    private static Map<String, Object> stats(UserDirectoryCache.Counter c){
+        return Map.of("hits", c.hits(), "misses", c.misses(), "hitRatio", c.hitRatio());
+    }
+}
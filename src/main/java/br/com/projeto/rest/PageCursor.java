@@ -0,0 +1,32 @@
+package br.com.projeto.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Cursor opaco da paginação por chave: os valores da última linha da página,
+ * em Base64URL. O cliente só devolve o valor recebido em {@code next}.
+ */
+final class PageCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private PageCursor(){}
+
+    static String encode(String... values){
+        String joined = String.join(String.valueOf(SEPARATOR), values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Valores do cursor, ou vazio se ele não foi gerado aqui com {@code parts} valores. */
+    static Optional<String[]> decode(String cursor, int parts){
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = joined.split(String.valueOf(SEPARATOR), -1);
+            return values.length == parts ? Optional.of(values) : Optional.empty();
+        } catch(IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
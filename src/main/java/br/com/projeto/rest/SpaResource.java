@@ -1,5 +1,6 @@
 package br.com.projeto.rest;
 
+import br.com.projeto.annotations.PublicEndpoint;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -16,6 +17,7 @@ public class SpaResource {
 
     @GET
     @Path("{path:.*}")
+    @PublicEndpoint
     @Produces(MediaType.TEXT_HTML)
     public InputStream serveSpa(@PathParam("path") String path) {
         // Se for uma rota de API, não intercepta (já tratado por outros Resources)
@@ -1,11 +1,12 @@
 package br.com.projeto.service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import br.com.projeto.dao.UserDAO;
 import br.com.projeto.models.User;
 import br.com.projeto.utils.JwtUtil;
-import br.com.projeto.utils.PasswordUtil;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -20,30 +21,39 @@ public class AuthService {
     @Inject
     JwtUtil jwtUtil;
 
+    @Inject
+    PasswordHashingService passwordHashing;
+
+    @Inject
+    UserDirectoryCache userDirectory;
+
     public boolean hasAdmin(){
-        return userDAO.find("role", "admin").firstResultOptional().isPresent();
+        return userDirectory.hasAdmin();
     }
 
-    @Transactional
-    public AuthResult createAdmin(String username, String password){
-        if(hasAdmin()) return null; // Ou lançar exceção
+    // O hash da senha roda no pool de PasswordHashingService; a gravação
+    // acontece depois, em transação própria, para não segurar conexão do banco
+    // durante o cálculo do hash.
+    public CompletableFuture<AuthResult> createAdmin(String username, String password){
+        if(hasAdmin()) return CompletableFuture.completedFuture(null); // Ou lançar exceção
         return createUserWithRole(username, password, "admin");
     }
 
-    @Transactional
-    public AuthResult register(String username, String password){
+    public CompletableFuture<AuthResult> register(String username, String password){
         return createUserWithRole(username, password, "funcionario");
     }
 
-    @Transactional
-    public AuthResult login(String username, String password){
+    public CompletableFuture<AuthResult> login(String username, String password){
         Optional<User> uo = userDAO.findByUsername(username);
-        if(uo.isEmpty()) return null;
+        // Usuário inexistente também paga um PBKDF2 completo, no mesmo pool
+        if(uo.isEmpty()) return passwordHashing.verifyDummy(password).thenApply(ok -> null);
         User u = uo.get();
-        String hash = PasswordUtil.sha256(password);
-        if(!u.passwordHash.equals(hash)) return null;
-        String token = jwtUtil.createToken(u.id, u.username, u.role, 3600 * 12);
-        return new AuthResult(token, toPublicUser(u));
+        return passwordHashing.verify(password, u.passwordHash).thenApply(ok -> {
+            if(!ok) return null;
+            if(passwordHashing.needsRehash(u.passwordHash)) upgradeHash(u.id, password);
+            String token = jwtUtil.createToken(u.id, u.username, u.role, 3600 * 12);
+            return new AuthResult(token, toPublicUser(u));
+        });
     }
 
     @Transactional
@@ -55,25 +65,68 @@ public class AuthService {
             User u = uo.get();
             u.role = "gestor";
             userDAO.getEntityManager().merge(u);
+            userDirectory.roleChanged(id);
             return true;
         } catch(IllegalArgumentException e){
             return false;
         }
     }
 
-    public java.util.List<PublicUser> getAllUsers(){
-        return userDAO.listAll().stream()
-            .map(this::toPublicUser)
-            .collect(java.util.stream.Collectors.toList());
+    /**
+     * Página de usuários por keyset sobre username, com projeção de
+     * id/username/role (sem carregar entidades nem hashes de senha).
+     */
+    public UserPage listUsers(String afterUsername, String prefix, int limit){
+        var rows = userDAO.listPublicPage(afterUsername, prefix, limit + 1);
+        UserPage page = new UserPage();
+        page.items = new java.util.ArrayList<>(Math.min(rows.size(), limit));
+        for(int i = 0; i < rows.size() && i < limit; i++){
+            Object[] r = rows.get(i);
+            PublicUser pu = new PublicUser();
+            pu.id = r[0].toString();
+            pu.username = (String) r[1];
+            pu.role = (String) r[2];
+            page.items.add(pu);
+        }
+        if(rows.size() > limit) page.nextAfter = page.items.get(limit - 1).username;
+        return page;
     }
 
-    private AuthResult createUserWithRole(String username, String password, String role){
-        if(userDAO.findByUsername(username).isPresent()) return null;
-        String hash = PasswordUtil.sha256(password);
-        User u = User.of(username, hash, role);
-        userDAO.persist(u);
-        String token = jwtUtil.createToken(u.id, u.username, u.role, 3600 * 12);
-        return new AuthResult(token, toPublicUser(u));
+    /**
+     * Percorre todos os usuários (opcionalmente filtrados por prefixo) em
+     * páginas de {@code batchSize}, cada uma em sua própria transação curta,
+     * entregando-os um a um. A memória usada não depende do total.
+     */
+    public void forEachUser(String prefix, int batchSize, java.util.function.Consumer<PublicUser> consumer){
+        String after = null;
+        while(true){
+            final String cursor = after;
+            UserPage page = QuarkusTransaction.requiringNew().call(() -> listUsers(cursor, prefix, batchSize));
+            page.items.forEach(consumer);
+            if(page.nextAfter == null) return;
+            after = page.nextAfter;
+        }
+    }
+
+    private CompletableFuture<AuthResult> createUserWithRole(String username, String password, String role){
+        if(userDirectory.idOf(username).isPresent()) return CompletableFuture.completedFuture(null);
+        return passwordHashing.hash(password).thenApply(hash -> QuarkusTransaction.requiringNew().call(() -> {
+            // Reverificar dentro da transação: outro cadastro pode ter ocorrido durante o hash
+            if(userDAO.findByUsername(username).isPresent()) return null;
+            if("admin".equals(role) && hasAdmin()) return null;
+            User u = User.of(username, hash, role);
+            userDAO.persist(u);
+            userDirectory.userCreated(u.id, u.username, u.role);
+            String token = jwtUtil.createToken(u.id, u.username, u.role, 3600 * 12);
+            return new AuthResult(token, toPublicUser(u));
+        }));
+    }
+
+    // Regrava hashes antigos (SHA-256) ou de custo menor em segundo plano após um login válido
+    private void upgradeHash(java.util.UUID userId, String password){
+        passwordHashing.hash(password).thenAccept(hash -> QuarkusTransaction.requiringNew().run(() ->
+            userDAO.update("passwordHash = ?1 where id = ?2", hash, userId)
+        ));
     }
 
     private PublicUser toPublicUser(User u){
@@ -91,6 +144,11 @@ public class AuthService {
         public AuthResult(String token, PublicUser user){ this.token = token; this.user = user; }
     }
 
+    public static class UserPage{
+        public java.util.List<PublicUser> items;
+        public String nextAfter; // username do último item, null na última página
+    }
+
     @RegisterForReflection
     public static class PublicUser{
         public String id;
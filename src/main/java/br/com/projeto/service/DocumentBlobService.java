@@ -0,0 +1,284 @@
+package br.com.projeto.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import br.com.projeto.dao.DocumentBlobDAO;
+import br.com.projeto.models.DocumentBlob;
+import br.com.projeto.storage.CompressionPolicy;
+import br.com.projeto.storage.ContentEncoding;
+import br.com.projeto.storage.DocumentStorage;
+import br.com.projeto.storage.StoredBlob;
+import br.com.projeto.storage.StreamingDigest;
+import br.com.projeto.utils.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Conteúdo dos documentos endereçado pelo SHA-256. Uploads repetidos do
+ * mesmo arquivo só incrementam {@code document_blobs.ref_count}, sem gravar
+ * nada no {@link DocumentStorage}.
+ *
+ * O contador é alterado na mesma transação que grava a linha do documento,
+ * então um rollback desfaz a referência junto. Objetos sem referência só são
+ * removidos pela coleta periódica, depois de um período de carência.
+ */
+@ApplicationScoped
+public class DocumentBlobService {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int COLLECT_BATCH = 500;
+
+    @Inject
+    DocumentBlobDAO blobDAO;
+
+    @Inject
+    DocumentStorage storage;
+
+    @Inject
+    CompressionPolicy compression;
+
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.storage.dedup.grace-period", defaultValue = "10m")
+    Duration gracePeriod;
+
+    @ConfigProperty(name = "app.storage.prepare-threads", defaultValue = "0")
+    int prepareThreads;
+
+    @ConfigProperty(name = "app.storage.prepare-queue", defaultValue = "64")
+    int prepareQueue;
+
+    private ThreadPoolExecutor preparer;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder logicalBytes = new LongAdder();
+    private final LongAdder uniqueBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+
+    /**
+     * Conteúdo já lido e, se ainda desconhecido, já gravado e registrado,
+     * pronto para {@link #acquire(Prepared)} na transação do documento.
+     */
+    public record Prepared(Path content, String contentType, String sha256, long size, StoredBlob written) {}
+
+    @PostConstruct
+    void init(){
+        int n = prepareThreads > 0 ? prepareThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        // Fila cheia: quem pediu prepara o arquivo na própria thread
+        preparer = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, prepareQueue)),
+            r -> {
+                Thread t = new Thread(r, "document-prepare-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown(){
+        preparer.shutdown();
+    }
+
+    /**
+     * Calcula o hash e grava o conteúdo ainda não armazenado, fora de
+     * qualquer transação de documento. A referência só é adquirida depois,
+     * em {@link #acquire(Prepared)}; conteúdo preparado e nunca adquirido é
+     * removido pela coleta após a carência.
+     */
+    public Prepared prepare(Path content, String contentType) throws IOException {
+        StreamingDigest.Result digest = StreamingDigest.digest(content);
+        String sha = digest.sha256();
+        boolean known = QuarkusTransaction.requiringNew().call(() -> blobDAO.findBySha256(sha).isPresent());
+        StoredBlob written = null;
+        if(!known){
+            written = storage.writeContent(content, sha, compression.choose(content, contentType, digest.size()));
+            register(written);
+        }
+        return new Prepared(content, contentType, sha, digest.size(), written);
+    }
+
+    /** {@link #prepare} no pool de preparação, para vários arquivos em paralelo. */
+    public CompletableFuture<Prepared> prepareAsync(Path content, String contentType){
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return prepare(content, contentType);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, preparer);
+    }
+
+    /**
+     * Adquire uma referência ao conteúdo do arquivo, gravando-o apenas se
+     * ainda não estiver armazenado. Conteúdo novo passa pela
+     * {@link CompressionPolicy}. Deve rodar dentro da transação do documento.
+     */
+    public StoredBlob acquire(Path content, String contentType) throws IOException {
+        // Só leitura: a chave precisa ser conhecida antes de decidir gravar
+        StreamingDigest.Result digest = StreamingDigest.digest(content);
+        return acquire(new Prepared(content, contentType, digest.sha256(), digest.size(), null));
+    }
+
+    /** Adquire a referência de um conteúdo preparado, na transação do documento. */
+    public StoredBlob acquire(Prepared prepared) throws IOException {
+        Path content = prepared.content();
+        String sha = prepared.sha256();
+        StoredBlob written = prepared.written();
+        StoredBlob result;
+        for(int attempt = 0; ; attempt++){
+            if(blobDAO.retain(sha)){
+                DocumentBlob b = blobDAO.findBySha256(sha).orElseThrow();
+                if(written != null && !written.key().equals(b.storageKey)){
+                    // Upload concorrente registrou o conteúdo com outra codificação
+                    deleteQuietly(written.key());
+                    written = null;
+                }
+                // Objeto referenciado não é coletado; só pode faltar se uma
+                // coleta anterior falhou entre apagar o arquivo e o commit
+                if(written == null && !storage.exists(b.storageKey)){
+                    written = storage.writeContent(content, sha, b.encoding);
+                }
+                result = new StoredBlob(b.storageKey, b.size, sha, b.storedSize, b.encoding);
+                break;
+            }
+            if(attempt == MAX_ATTEMPTS) throw new IOException("Não foi possível registrar o conteúdo " + sha);
+            ContentEncoding encoding = compression.choose(content, prepared.contentType(), prepared.size());
+            written = storage.writeContent(content, sha, encoding);
+            register(written);
+        }
+
+        long size = result.size();
+        long stored = written == null ? 0 : written.storedSize();
+        boolean hit = written == null;
+        txHooks.afterCommit(() -> {
+            acquired.increment();
+            logicalBytes.add(size);
+            if(hit){
+                hits.increment();
+            } else {
+                uniqueBytes.add(size);
+                storedBytes.add(stored);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Devolve uma referência, na transação que removeu ou trocou o conteúdo
+     * do documento.
+     */
+    public void release(String sha256){
+        if(sha256 != null) blobDAO.release(sha256, System.currentTimeMillis());
+    }
+
+    // A linha nasce sem referências e numa transação própria: dois uploads
+    // simultâneos do mesmo conteúdo não disputam o insert dentro das
+    // transações dos documentos. A carência protege a linha até o retain.
+    private void register(StoredBlob written){
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                DocumentBlob b = DocumentBlob.of(written);
+                b.refCount = 0;
+                b.releasedAt = System.currentTimeMillis();
+                blobDAO.persist(b);
+            });
+        } catch(RuntimeException e) {
+            // Outro upload registrou o mesmo conteúdo primeiro
+        }
+    }
+
+    /**
+     * Remove objetos sem referência há mais que a carência. A linha e o
+     * arquivo saem na mesma transação: um upload concorrente do mesmo
+     * conteúdo espera o lock da linha e, ao não encontrá-la, grava de novo.
+     */
+    @Scheduled(every = "${app.storage.dedup.gc-interval:5m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void collect(){
+        long cutoff = System.currentTimeMillis() - gracePeriod.toMillis();
+        List<String> shas = QuarkusTransaction.requiringNew().call(() -> blobDAO.listReclaimable(cutoff, COLLECT_BATCH));
+        for(String sha : shas){
+            try {
+                QuarkusTransaction.requiringNew().run(() -> {
+                    DocumentBlob b = blobDAO.findBySha256(sha).orElse(null);
+                    if(b == null || !blobDAO.deleteIfUnreferenced(sha, cutoff)) return;
+                    try {
+                        storage.delete(b.storageKey);
+                        if(b.previewKey != null) storage.delete(b.previewKey);
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    txHooks.afterCommit(reclaimed::increment);
+                });
+            } catch(RuntimeException e) {
+                // Fica para a próxima coleta
+            }
+        }
+    }
+
+    private void deleteQuietly(String key){
+        try {
+            storage.delete(key);
+        } catch(IOException | RuntimeException e) {
+            // Objeto órfão no disco não afeta a consistência dos metadados
+        }
+    }
+
+    public long acquired(){
+        return acquired.sum();
+    }
+
+    public long hits(){
+        return hits.sum();
+    }
+
+    public long logicalBytes(){
+        return logicalBytes.sum();
+    }
+
+    /** Bytes originais de conteúdo novo (não deduplicado). */
+    public long uniqueBytes(){
+        return uniqueBytes.sum();
+    }
+
+    /** Bytes efetivamente gravados para o conteúdo novo, após compressão. */
+    public long storedBytes(){
+        return storedBytes.sum();
+    }
+
+    public long reclaimed(){
+        return reclaimed.sum();
+    }
+
+    /** Fração dos bytes recebidos que não precisou ser gravada (0 = nenhuma deduplicação). */
+    public double dedupRatio(){
+        long logical = logicalBytes.sum();
+        return logical == 0 ? 0.0 : 1.0 - (double) uniqueBytes.sum() / logical;
+    }
+
+    /** Bytes gravados por byte original do conteúdo novo (1.0 = sem compressão). */
+    public double compressionRatio(){
+        long unique = uniqueBytes.sum();
+        return unique == 0 ? 1.0 : (double) storedBytes.sum() / unique;
+    }
+}
@@ -1,12 +1,39 @@
 package br.com.projeto.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
 
 import br.com.projeto.dao.EmployeeDAO;
+import br.com.projeto.dao.EmployeeDocumentDAO;
+import br.com.projeto.models.DocumentMetadata;
 import br.com.projeto.models.Employee;
 import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.models.PendingDocument;
+import br.com.projeto.storage.BlobContent;
+import br.com.projeto.storage.DocumentStorage;
+import br.com.projeto.storage.StoredBlob;
+import br.com.projeto.utils.TransactionHooks;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -14,10 +41,43 @@ import jakarta.transaction.Transactional;
 @ApplicationScoped
 public class EmployeeService {
 
+    // Limite de parâmetros no IN da consulta de metadados
+    private static final int METADATA_BATCH = 500;
+    // Itens por aprovação em lote: uma consulta e no máximo dois UPDATEs
+    public static final int MAX_BULK_APPROVALS = 500;
+    // Chave do total geral no cache de contagens
+    private static final UUID ALL = new UUID(0L, 0L);
+    private static final int COUNT_CACHE_MAX = 10_000;
+    // Nome da unique constraint (employee_id, name) em EmployeeDocument; o H2 acrescenta sufixos
+    private static final String UNIQUE_NAME = "uk_employee_documents_employee_name";
+
+    public enum ApprovalOutcome { UPDATED, NOT_FOUND, FORBIDDEN, INVALID, DUPLICATE }
+
+    public record ApprovalItem(String employeeId, String name, boolean approved) {}
+
+    public record ApprovalResult(String employeeId, String name, ApprovalOutcome outcome) {}
+
     @Inject
     EmployeeDAO employeeDAO;
     @Inject
-    br.com.projeto.dao.UserDAO userDAO;
+    EmployeeDocumentDAO documentDAO;
+    @Inject
+    UserDirectoryCache userDirectory;
+    @Inject
+    DocumentStorage documentStorage;
+    @Inject
+    DocumentBlobService blobs;
+    @Inject
+    PreviewService previews;
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.employees.count-cache-ttl", defaultValue = "30s")
+    Duration countCacheTtl;
+
+    // Totais por gestor (ALL = todos); zerados após o commit de qualquer cadastro ou troca de gestor
+    private record CachedCount(long value, long expiresAt) {}
+    private final ConcurrentHashMap<UUID, CachedCount> counts = new ConcurrentHashMap<>();
 
     @Transactional
     public Employee createEmployeeForUser(String userId, String data){
@@ -32,6 +92,7 @@ public class EmployeeService {
         }
         Employee e = Employee.create(uid, data);
         employeeDAO.persist(e);
+        txHooks.afterCommit(counts::clear);
         return e;
     }
 
@@ -53,55 +114,211 @@ public class EmployeeService {
         Employee e = Employee.create(uid, data);
         e.managerId = mid;
         employeeDAO.persist(e);
+        txHooks.afterCommit(counts::clear);
         return e;
     }
 
+    /** Arquivo recebido para virar documento do funcionário. */
+    public record NewDocument(String name, String fileName, String contentType, Path content) {}
+
+    /** Arquivo com o conteúdo já preparado em {@link DocumentBlobService}. */
+    public record PreparedDocument(NewDocument source, DocumentBlobService.Prepared blob) {}
+
+    /**
+     * Prepara os arquivos em paralelo (hash, compressão e gravação), fora da
+     * transação. Em caso de falha a mensagem da exceção é o nome do arquivo.
+     */
+    public List<PreparedDocument> prepareDocuments(List<NewDocument> files) throws IOException {
+        List<CompletableFuture<DocumentBlobService.Prepared>> futures = new ArrayList<>(files.size());
+        for(NewDocument f : files){
+            futures.add(blobs.prepareAsync(f.content(), f.contentType()));
+        }
+        List<PreparedDocument> prepared = new ArrayList<>(files.size());
+        for(int i = 0; i < files.size(); i++){
+            try {
+                prepared.add(new PreparedDocument(files.get(i), futures.get(i).join()));
+            } catch(CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException u ? u.getCause() : e.getCause();
+                throw new IOException(files.get(i).fileName(), cause);
+            }
+        }
+        return prepared;
+    }
+
+    /**
+     * Cria o funcionário e seus documentos numa única transação: os
+     * documentos entram com um INSERT em lote no flush do commit.
+     */
     @Transactional
-    public EmployeeDocument addDocument(String employeeId, String documentName, String fileName, String contentType, byte[] fileData){
+    public Employee createEmployee(String userId, String data, String managerId, List<PreparedDocument> documents) throws IOException {
+        Employee e = managerId == null || managerId.trim().isEmpty()
+            ? createEmployeeForUser(userId, data)
+            : createEmployeeForUserWithManager(userId, data, managerId);
+        addDocuments(e, documents);
+        return e;
+    }
+
+    /**
+     * Adiciona vários documentos já preparados. Nomes repetidos no lote ou já
+     * existentes para o funcionário rejeitam o lote inteiro.
+     */
+    @Transactional
+    public List<EmployeeDocument> addDocuments(Employee e, List<PreparedDocument> documents) throws IOException {
+        if(documents.isEmpty()) return List.of();
+        Set<String> names = new HashSet<>();
+        for(PreparedDocument p : documents){
+            if(!names.add(p.source().name())) throw new IllegalStateException("Document already exists: " + p.source().name());
+        }
+        // Coleção já carregada (ex.: funcionário recém-criado) dispensa a consulta
+        List<String> existing = Hibernate.isInitialized(e.documents)
+            ? e.documents.stream().map(d -> d.name).filter(names::contains).toList()
+            : documentDAO.listExistingNames(e.id, names);
+        if(!existing.isEmpty()) throw new IllegalStateException("Document already exists: " + existing.get(0));
+
+        // Referências primeiro: os UPDATEs de ref_count não intercalam com os INSERTs do lote
+        List<EmployeeDocument> docs = new ArrayList<>(documents.size());
+        for(PreparedDocument p : documents){
+            NewDocument f = p.source();
+            StoredBlob blob = blobs.acquire(p.blob());
+            EmployeeDocument doc = EmployeeDocument.of(e, f.name(), f.fileName(), f.contentType(), blob.key(), blob.size(), blob.sha256());
+            doc.storedSize = blob.storedSize();
+            doc.contentEncoding = blob.encoding();
+            docs.add(doc);
+        }
+        documentDAO.persist(docs);
+        flushDocuments(String.join(", ", names));
+        if(Hibernate.isInitialized(e.documents)) e.documents.addAll(docs);
+        for(EmployeeDocument doc : docs){
+            previews.schedule(doc);
+        }
+        return docs;
+    }
+
+    @Transactional
+    public EmployeeDocument addDocument(String employeeId, String documentName, String fileName, String contentType, Path content) throws IOException {
         Optional<Employee> eo = getById(employeeId);
         if(eo.isEmpty()) throw new IllegalArgumentException("Employee not found");
         
         Employee e = eo.get();
-        EmployeeDocument doc = EmployeeDocument.of(e, documentName, fileName, contentType, fileData);
-        e.documents.add(doc);
-        employeeDAO.getEntityManager().merge(e);
+        if(documentDAO.existsByEmployeeAndName(e.id, documentName)){
+            throw new IllegalStateException("Document already exists: " + documentName);
+        }
+        StoredBlob blob = blobs.acquire(content, contentType);
+        EmployeeDocument doc = EmployeeDocument.of(e, documentName, fileName, contentType, blob.key(), blob.size(), blob.sha256());
+        doc.storedSize = blob.storedSize();
+        doc.contentEncoding = blob.encoding();
+        documentDAO.persist(doc);
+        flushDocuments(documentName);
+        // Só mantém a coleção em memória quando ela já foi carregada (ex.: funcionário recém-criado)
+        if(Hibernate.isInitialized(e.documents)) e.documents.add(doc);
+        previews.schedule(doc);
         return doc;
     }
 
+    /**
+     * A checagem de nome existente não impede dois envios simultâneos do mesmo
+     * nome; quem decide é a unique constraint. O flush aqui faz a violação
+     * aparecer dentro do serviço, como o mesmo IllegalStateException da
+     * checagem, em vez de estourar no commit.
+     */
+    private void flushDocuments(String names){
+        try{
+            documentDAO.flush();
+        } catch(ConstraintViolationException ex){
+            String constraint = ex.getConstraintName();
+            if(constraint != null && constraint.toLowerCase().contains(UNIQUE_NAME)){
+                throw new IllegalStateException("Document already exists: " + names, ex);
+            }
+            throw ex;
+        }
+    }
+
     @Transactional
-    public boolean updateDocument(String employeeId, String documentName, String fileName, String contentType, byte[] fileData){
-        Optional<Employee> eo = getById(employeeId);
-        if(eo.isEmpty()) return false;
-        
-        Employee e = eo.get();
-        EmployeeDocument doc = e.documents.stream()
-            .filter(d -> documentName.equals(d.name))
-            .findFirst()
-            .orElse(null);
+    public boolean updateDocument(String employeeId, String documentName, String fileName, String contentType, Path content) throws IOException {
+        UUID eid = parseId(employeeId);
+        if(eid == null) return false;
         
+        // Trava só a linha do documento: substituições concorrentes não liberam o mesmo blob duas vezes
+        EmployeeDocument doc = documentDAO.findByEmployeeAndNameForUpdate(eid, documentName).orElse(null);
         if(doc == null) return false;
         
+        StoredBlob blob = blobs.acquire(content, contentType);
+        blobs.release(doc.sha256);
         doc.fileName = fileName;
         doc.contentType = contentType;
-        doc.fileData = fileData;
-        doc.fileSize = (long) fileData.length;
+        doc.storageKey = blob.key();
+        doc.fileSize = blob.size();
+        doc.sha256 = blob.sha256();
+        doc.storedSize = blob.storedSize();
+        doc.contentEncoding = blob.encoding();
+        doc.uploadedAt = Instant.now();
+        doc.previewKey = null;
         doc.approved = null; // Resetar aprovação quando documento é atualizado
         
-        employeeDAO.getEntityManager().merge(e);
+        previews.schedule(doc);
         return true;
     }
 
+    public BlobContent content(EmployeeDocument doc){
+        return new BlobContent(documentStorage, doc.storageKey, doc.fileSize, doc.contentEncoding);
+    }
+
+    public BlobContent content(DocumentMetadata doc){
+        return new BlobContent(documentStorage, doc.storageKey(), doc.fileSize(), doc.contentEncoding());
+    }
+
+    public Optional<BlobContent> preview(EmployeeDocument doc) throws IOException {
+        return previews.preview(doc);
+    }
+
     public Optional<EmployeeDocument> getDocument(String employeeId, String documentName){
-        Optional<Employee> eo = getById(employeeId);
-        if(eo.isEmpty()) return Optional.empty();
-        
-        return eo.get().documents.stream()
-            .filter(d -> documentName.equals(d.name))
-            .findFirst();
+        UUID eid = parseId(employeeId);
+        if(eid == null) return Optional.empty();
+        return documentDAO.findByEmployeeAndName(eid, documentName);
+    }
+
+    /**
+     * Fila de aprovação: documentos pendentes em ordem de envio, a partir da
+     * posição ({@code afterAt}, {@code afterId}). {@code managerId} nulo = todos.
+     */
+    public List<PendingDocument> pendingDocuments(UUID managerId, Instant afterAt, UUID afterId, int limit){
+        return documentDAO.listPending(managerId, afterAt, afterId, limit);
+    }
+
+    /**
+     * Página de funcionários em ordem de id, depois de {@code after}
+     * (exclusivo). {@code managerId} nulo = todos.
+     */
+    public List<Employee> listEmployees(UUID managerId, UUID after, int limit){
+        return employeeDAO.listPage(managerId, after, limit);
+    }
+
+    /** Total de funcionários (do gestor, ou todos), em cache por alguns segundos. */
+    public long countEmployees(UUID managerId){
+        UUID key = managerId == null ? ALL : managerId;
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if(cached != null && cached.expiresAt() > now) return cached.value();
+        long value = employeeDAO.countByManager(managerId);
+        if(counts.size() >= COUNT_CACHE_MAX) counts.clear();
+        counts.put(key, new CachedCount(value, now + countCacheTtl.toMillis()));
+        return value;
     }
 
-    public List<Employee> getAllEmployees(){
-        return employeeDAO.listAll();
+    /**
+     * Metadados dos documentos de cada funcionário, por projeção: uma consulta
+     * por lote de funcionários em vez de uma coleção carregada por entidade.
+     */
+    public Map<UUID, List<DocumentMetadata>> documentMetadata(Collection<UUID> employeeIds){
+        Map<UUID, List<DocumentMetadata>> byEmployee = new HashMap<>();
+        List<UUID> ids = List.copyOf(employeeIds);
+        for(int from = 0; from < ids.size(); from += METADATA_BATCH){
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + METADATA_BATCH));
+            for(DocumentMetadata m : documentDAO.listMetadata(batch)){
+                byEmployee.computeIfAbsent(m.employeeId(), k -> new ArrayList<>()).add(m);
+            }
+        }
+        return byEmployee;
     }
 
     public List<Employee> getEmployeesByManager(String managerId){
@@ -114,7 +331,7 @@ public class EmployeeService {
         } catch(IllegalArgumentException e) {
             return List.of();
         }
-        return employeeDAO.find("managerId", mid).list();
+        return employeeDAO.find("managerId", mid).withHint(HibernateHints.HINT_READ_ONLY, true).list();
     }
 
     public Optional<Employee> getById(String employeeId){
@@ -125,6 +342,15 @@ public class EmployeeService {
         }
     }
 
+    private static UUID parseId(String id){
+        if(id == null) return null;
+        try{
+            return UUID.fromString(id);
+        } catch(IllegalArgumentException e){
+            return null;
+        }
+    }
+
     public Optional<Employee> getByUserId(String userId){
         if(userId == null || userId.trim().isEmpty()){
             return Optional.empty();
@@ -140,14 +366,68 @@ public class EmployeeService {
 
     @Transactional
     public boolean approveDocument(String employeeId, String name, boolean approved){
-        Optional<Employee> eo = getById(employeeId);
-        if(eo.isEmpty()) return false;
-        Employee e = eo.get();
-        EmployeeDocument doc = e.documents.stream().filter(d->name.equals(d.name)).findFirst().orElse(null);
-        if(doc == null) return false;
-        doc.approved = approved;
-        employeeDAO.getEntityManager().merge(e);
-        return true;
+        UUID eid = parseId(employeeId);
+        if(eid == null) return false;
+        return documentDAO.approve(eid, name, approved) > 0;
+    }
+
+    /**
+     * Aprova ou reprova vários documentos numa transação. Existência e equipe
+     * são verificadas numa única consulta; os documentos autorizados mudam
+     * com um UPDATE por decisão (aprovados / reprovados). {@code managerId}
+     * nulo = sem restrição de equipe (admin). O resultado segue a ordem dos
+     * itens; o mesmo documento repetido no lote só vale na primeira vez.
+     */
+    @Transactional
+    public List<ApprovalResult> approveDocuments(UUID managerId, List<ApprovalItem> items){
+        if(items.size() > MAX_BULK_APPROVALS) throw new IllegalArgumentException("Too many items: " + items.size());
+        UUID[] employeeIds = new UUID[items.size()];
+        Set<UUID> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for(int i = 0; i < items.size(); i++){
+            ApprovalItem item = items.get(i);
+            UUID eid = item.name() == null ? null : parseId(item.employeeId());
+            employeeIds[i] = eid;
+            if(eid != null){
+                ids.add(eid);
+                names.add(item.name());
+            }
+        }
+
+        // (employeeId, nome) -> {id do documento, gestor do funcionário}
+        Map<String, Object[]> targets = new HashMap<>();
+        if(!ids.isEmpty()){
+            for(Object[] row : documentDAO.listApprovalTargets(ids, names)){
+                targets.put(row[1] + "/" + row[2], row);
+            }
+        }
+
+        List<ApprovalResult> results = new ArrayList<>(items.size());
+        Set<UUID> seen = new HashSet<>();
+        List<UUID> approve = new ArrayList<>();
+        List<UUID> reject = new ArrayList<>();
+        for(int i = 0; i < items.size(); i++){
+            ApprovalItem item = items.get(i);
+            ApprovalOutcome outcome;
+            Object[] target = employeeIds[i] == null ? null : targets.get(employeeIds[i] + "/" + item.name());
+            if(employeeIds[i] == null){
+                outcome = ApprovalOutcome.INVALID;
+            } else if(target == null){
+                outcome = ApprovalOutcome.NOT_FOUND;
+            } else if(managerId != null && !managerId.equals(target[3])){
+                outcome = ApprovalOutcome.FORBIDDEN;
+            } else if(!seen.add((UUID) target[0])){
+                outcome = ApprovalOutcome.DUPLICATE;
+            } else {
+                (item.approved() ? approve : reject).add((UUID) target[0]);
+                outcome = ApprovalOutcome.UPDATED;
+            }
+            results.add(new ApprovalResult(item.employeeId(), item.name(), outcome));
+        }
+
+        if(!approve.isEmpty()) documentDAO.setApproved(approve, true);
+        if(!reject.isEmpty()) documentDAO.setApproved(reject, false);
+        return results;
     }
 
     @Transactional
@@ -160,6 +440,7 @@ public class EmployeeService {
         if(managerId == null || managerId.trim().isEmpty()){
             e.managerId = null;
             employeeDAO.getEntityManager().merge(e);
+            txHooks.afterCommit(counts::clear);
             return true;
         }
 
@@ -176,13 +457,14 @@ public class EmployeeService {
         }
 
         // Verificar se usuário alvo existe e tem role gestor ou admin
-        var userOpt = userDAO.findByIdOptional(mid);
-        if(userOpt.isEmpty()) return false;
-        var targetUser = userOpt.get();
-        if(!"gestor".equals(targetUser.role) && !"admin".equals(targetUser.role)) return false;
+        var roleOpt = userDirectory.roleOf(mid);
+        if(roleOpt.isEmpty()) return false;
+        String targetRole = roleOpt.get();
+        if(!"gestor".equals(targetRole) && !"admin".equals(targetRole)) return false;
 
         e.managerId = mid;
         employeeDAO.getEntityManager().merge(e);
+        txHooks.afterCommit(counts::clear);
         return true;
     }
 }
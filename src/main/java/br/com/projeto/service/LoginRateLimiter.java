@@ -0,0 +1,149 @@
+package br.com.projeto.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Limitador de tentativas de login/cadastro em memória, com token buckets
+ * por usuário e por endereço do cliente. Os buckets ficam repartidos em
+ * faixas por hash, cada uma um mapa LRU com seu próprio lock: busca e
+ * consumo acontecem sob o mesmo lock, e cada faixa guarda no máximo
+ * {@code max-buckets / STRIPES} buckets (o menos usado sai primeiro). Buckets
+ * ociosos ou cheios são removidos só pela varredura agendada.
+ */
+@ApplicationScoped
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    @ConfigProperty(name = "app.ratelimit.username.capacity", defaultValue = "5")
+    int usernameCapacity;
+
+    @ConfigProperty(name = "app.ratelimit.username.refill-per-minute", defaultValue = "5")
+    double usernameRefillPerMinute;
+
+    @ConfigProperty(name = "app.ratelimit.client.capacity", defaultValue = "30")
+    int clientCapacity;
+
+    @ConfigProperty(name = "app.ratelimit.client.refill-per-minute", defaultValue = "60")
+    double clientRefillPerMinute;
+
+    @ConfigProperty(name = "app.ratelimit.idle-timeout", defaultValue = "10m")
+    java.time.Duration idleTimeout;
+
+    @ConfigProperty(name = "app.ratelimit.max-buckets", defaultValue = "100000")
+    int maxBuckets;
+
+    @SuppressWarnings("unchecked")
+    private final LinkedHashMap<String, Bucket>[] stripes = new LinkedHashMap[STRIPES];
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @PostConstruct
+    void init(){
+        int perStripe = Math.max(1, maxBuckets / STRIPES);
+        for(int i = 0; i < STRIPES; i++){
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest){
+                    if(size() <= perStripe) return false;
+                    evicted.increment();
+                    return true;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        final int capacity;
+        final double perNano;
+        double tokens;
+        long lastRefill;
+        long lastAccess;
+
+        Bucket(int capacity, double perNano, long now){
+            this.capacity = capacity;
+            this.perNano = perNano;
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastAccess = now;
+        }
+
+        // Um bucket cheio equivale a um bucket inexistente e pode ser descartado
+        boolean refilled(long now){
+            return tokens + (now - lastRefill) * perNano >= capacity;
+        }
+    }
+
+    /**
+     * Consome uma tentativa para o usuário e para o cliente. Retorna 0 se a
+     * tentativa é permitida, ou quantos segundos o cliente deve esperar.
+     */
+    public long tryAcquire(String username, String clientAddress){
+        long now = System.nanoTime();
+        long wait = 0;
+        if(clientAddress != null){
+            wait = acquire("c:" + clientAddress, clientCapacity, clientRefillPerMinute, now);
+        }
+        if(wait == 0 && username != null){
+            wait = acquire("u:" + username, usernameCapacity, usernameRefillPerMinute, now);
+        }
+        if(wait == 0){
+            allowed.increment();
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Retorna 0 se havia token disponível, ou o tempo em nanos até o próximo token
+    private long acquire(String key, int capacity, double refillPerMinute, long now){
+        double perNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        LinkedHashMap<String, Bucket> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized(stripe){
+            Bucket b = stripe.computeIfAbsent(key, k -> new Bucket(capacity, perNano, now));
+            b.tokens = Math.min(capacity, b.tokens + (now - b.lastRefill) * b.perNano);
+            b.lastRefill = now;
+            b.lastAccess = now;
+            if(b.tokens >= 1){
+                b.tokens -= 1;
+                return 0;
+            }
+            return b.perNano <= 0 ? Long.MAX_VALUE / 2 : (long) Math.ceil((1 - b.tokens) / b.perNano);
+        }
+    }
+
+    @Scheduled(every = "1m", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictIdle(){
+        long now = System.nanoTime();
+        long idle = idleTimeout.toNanos();
+        for(LinkedHashMap<String, Bucket> stripe : stripes){
+            synchronized(stripe){
+                stripe.values().removeIf(b -> now - b.lastAccess > idle || b.refilled(now));
+            }
+        }
+    }
+
+    public int size(){
+        int n = 0;
+        for(LinkedHashMap<String, Bucket> stripe : stripes){
+            synchronized(stripe){
+                n += stripe.size();
+            }
+        }
+        return n;
+    }
+    public long allowed(){ return allowed.sum(); }
+    public long throttled(){ return throttled.sum(); }
+    /** Buckets descartados por falta de espaço (LRU), não por ociosidade. */
+    public long evicted(){ return evicted.sum(); }
+}
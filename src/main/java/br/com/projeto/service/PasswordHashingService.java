@@ -0,0 +1,93 @@
+package br.com.projeto.service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import br.com.projeto.utils.PasswordUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Executa o hash de senhas (PBKDF2) em um pool próprio e limitado, separado
+ * dos workers HTTP. Quando a fila está cheia a tarefa é rejeitada na hora:
+ * o futuro completa com {@link java.util.concurrent.RejectedExecutionException}
+ * e o endpoint responde 503 em vez de acumular requisições.
+ */
+@ApplicationScoped
+public class PasswordHashingService {
+
+    @ConfigProperty(name = "app.password.pbkdf2-iterations", defaultValue = "310000")
+    int iterations;
+
+    @ConfigProperty(name = "app.password.hashing-threads", defaultValue = "0")
+    int threads;
+
+    @ConfigProperty(name = "app.password.hashing-queue", defaultValue = "64")
+    int queueSize;
+
+    private ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    // Hash de uma senha aleatória com o custo atual, para logins de usuários inexistentes
+    private String dummyHash;
+
+    @PostConstruct
+    void init(){
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            r -> {
+                Thread t = new Thread(r, "password-hashing-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        dummyHash = PasswordUtil.pbkdf2(UUID.randomUUID().toString(), iterations);
+    }
+
+    @PreDestroy
+    void shutdown(){
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> hash(String password){
+        return submit(() -> PasswordUtil.pbkdf2(password, iterations));
+    }
+
+    public CompletableFuture<Boolean> verify(String password, String storedHash){
+        return submit(() -> PasswordUtil.verify(password, storedHash));
+    }
+
+    /**
+     * Verificação com o mesmo custo de um usuário existente, que sempre falha.
+     * Assim o tempo de resposta do login não revela quais usernames existem.
+     */
+    public CompletableFuture<Boolean> verifyDummy(String password){
+        return verify(password, dummyHash).thenApply(ok -> false);
+    }
+
+    public boolean needsRehash(String storedHash){
+        return PasswordUtil.needsRehash(storedHash, iterations);
+    }
+
+    private <T> CompletableFuture<T> submit(java.util.function.Supplier<T> task){
+        try{
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch(java.util.concurrent.RejectedExecutionException e){
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int activeCount(){ return executor.getActiveCount(); }
+    public int queued(){ return executor.getQueue().size(); }
+    public long rejected(){ return rejected.sum(); }
+}
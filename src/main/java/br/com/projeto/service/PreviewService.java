@@ -0,0 +1,225 @@
+package br.com.projeto.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import br.com.projeto.dao.DocumentBlobDAO;
+import br.com.projeto.dao.EmployeeDocumentDAO;
+import br.com.projeto.models.DocumentBlob;
+import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.storage.BlobContent;
+import br.com.projeto.storage.ContentEncoding;
+import br.com.projeto.storage.DocumentStorage;
+import br.com.projeto.storage.StoredBlob;
+import br.com.projeto.utils.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Miniaturas JPEG dos documentos de imagem, geradas fora do caminho do
+ * upload: a tarefa só é agendada depois do commit e roda num pool próprio e
+ * limitado. A miniatura pertence ao conteúdo ({@code document_blobs}), então
+ * uploads deduplicados reaproveitam a existente. Tarefas perdidas (fila
+ * cheia, reinício) são recuperadas por uma varredura periódica.
+ */
+@ApplicationScoped
+public class PreviewService {
+
+    private static final int BACKFILL_BATCH = 200;
+
+    @Inject
+    DocumentBlobDAO blobDAO;
+
+    @Inject
+    EmployeeDocumentDAO documentDAO;
+
+    @Inject
+    DocumentStorage storage;
+
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.preview.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.preview.max-dimension", defaultValue = "256")
+    int maxDimension;
+
+    @ConfigProperty(name = "app.preview.jpeg-quality", defaultValue = "0.8")
+    float quality;
+
+    @ConfigProperty(name = "app.preview.max-pixels", defaultValue = "50000000")
+    long maxPixels;
+
+    @ConfigProperty(name = "app.preview.threads", defaultValue = "1")
+    int threads;
+
+    @ConfigProperty(name = "app.preview.queue", defaultValue = "256")
+    int queueSize;
+
+    private ThreadPoolExecutor executor;
+    private Set<String> contentTypes;
+    // Conteúdos com tarefa na fila ou rodando; os ilegíveis ficam marcados em document_blobs.preview_failed
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    void init(){
+        contentTypes = Arrays.stream(ImageIO.getReaderMIMETypes())
+            .map(t -> t.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            r -> {
+                Thread t = new Thread(r, "document-preview-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown(){
+        executor.shutdownNow();
+    }
+
+    public boolean supports(String contentType){
+        return contentType != null && contentTypes.contains(contentType.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Agenda a miniatura do documento para depois do commit; o upload não
+     * espera por ela.
+     */
+    public void schedule(EmployeeDocument doc){
+        if(!enabled || !supports(doc.contentType) || doc.sha256 == null) return;
+        String sha = doc.sha256;
+        BlobContent content = new BlobContent(storage, doc.storageKey, doc.fileSize, doc.contentEncoding);
+        txHooks.afterCommit(() -> submit(sha, content));
+    }
+
+    /** Miniatura do documento, com o tamanho lido do armazenamento. */
+    public Optional<BlobContent> preview(EmployeeDocument doc) throws IOException {
+        if(doc.previewKey == null) return Optional.empty();
+        return Optional.of(new BlobContent(storage, doc.previewKey, storage.size(doc.previewKey), ContentEncoding.IDENTITY));
+    }
+
+    private void submit(String sha, BlobContent content){
+        if(!inFlight.add(sha)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sha, content);
+                } catch(IOException | RuntimeException e) {
+                    failed.increment();
+                } finally {
+                    inFlight.remove(sha);
+                }
+            });
+        } catch(RejectedExecutionException e) {
+            // A varredura periódica tenta de novo
+            inFlight.remove(sha);
+            rejected.increment();
+        }
+    }
+
+    void generate(String sha, BlobContent content) throws IOException {
+        DocumentBlob blob = QuarkusTransaction.requiringNew().call(() -> blobDAO.findBySha256(sha).orElse(null));
+        // Conteúdo já recusado pelo ImageIO (ex.: reenvio do mesmo arquivo)
+        if(blob != null && blob.previewFailed) return;
+        String previewKey = blob == null ? null : blob.previewKey;
+        if(previewKey != null){
+            // Conteúdo deduplicado: a miniatura já existe
+            reused.increment();
+        } else {
+            byte[] jpeg;
+            try {
+                jpeg = render(content);
+            } catch(IIOException e) {
+                jpeg = null; // imagem corrompida: erro de decodificação, não de leitura do armazenamento
+            }
+            if(jpeg == null){
+                QuarkusTransaction.requiringNew().run(() -> blobDAO.markPreviewFailed(sha));
+                failed.increment();
+                return;
+            }
+            StoredBlob stored = storage.write(new ByteArrayInputStream(jpeg));
+            if(QuarkusTransaction.requiringNew().call(() -> blobDAO.attachPreview(sha, stored.key()))){
+                previewKey = stored.key();
+                generated.increment();
+            } else {
+                // Outra tarefa (ou o conteúdo já foi coletado) chegou antes
+                storage.delete(stored.key());
+                previewKey = QuarkusTransaction.requiringNew().call(() ->
+                    blobDAO.findBySha256(sha).map(b -> b.previewKey).orElse(null));
+                if(previewKey == null) return;
+            }
+        }
+        String key = previewKey;
+        QuarkusTransaction.requiringNew().run(() -> documentDAO.attachPreview(sha, key));
+    }
+
+    private byte[] render(BlobContent content) throws IOException {
+        Optional<Path> file = content.file();
+        if(file.isPresent()){
+            try(ImageInputStream in = new FileImageInputStream(file.get().toFile())) {
+                return ThumbnailRenderer.render(in, maxDimension, quality, maxPixels);
+            }
+        }
+        try(InputStream raw = content.open(); ImageInputStream in = new MemoryCacheImageInputStream(raw)) {
+            return ThumbnailRenderer.render(in, maxDimension, quality, maxPixels);
+        }
+    }
+
+    /**
+     * Recupera documentos de imagem que ficaram sem miniatura (tarefa
+     * rejeitada por fila cheia ou perdida num reinício).
+     */
+    @Scheduled(every = "${app.preview.backfill-interval:10m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void backfill(){
+        if(!enabled) return;
+        var rows = QuarkusTransaction.requiringNew().call(() -> documentDAO.listMissingPreview(contentTypes, BACKFILL_BATCH));
+        for(Object[] r : rows){
+            String sha = (String) r[0];
+            submit(sha, new BlobContent(storage, (String) r[1], (Long) r[2], (ContentEncoding) r[3]));
+        }
+    }
+
+    public long generated(){ return generated.sum(); }
+    public long reused(){ return reused.sum(); }
+    public long failed(){ return failed.sum(); }
+    public long rejected(){ return rejected.sum(); }
+    public int queued(){ return executor.getQueue().size(); }
+}
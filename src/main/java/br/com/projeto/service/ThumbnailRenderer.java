@@ -0,0 +1,84 @@
+package br.com.projeto.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Gera miniaturas JPEG com {@code javax.imageio}. A imagem original é lida
+ * com subamostragem, perto do dobro do tamanho final, de modo que uma foto de
+ * dezenas de megapixels nunca é decodificada inteira na heap.
+ */
+final class ThumbnailRenderer {
+
+    private ThumbnailRenderer(){}
+
+    /**
+     * Retorna o JPEG da miniatura, ou null se o formato não for suportado ou
+     * a imagem exceder {@code maxPixels}.
+     */
+    static byte[] render(ImageInputStream input, int maxDimension, float quality, long maxPixels) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if(!readers.hasNext()) return null;
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if(width <= 0 || height <= 0 || (long) width * height > maxPixels) return null;
+
+            ImageReadParam param = reader.getDefaultReadParam();
+            int step = Math.max(1, Math.max(width, height) / (maxDimension * 2));
+            param.setSourceSubsampling(step, step, 0, 0);
+            BufferedImage source = reader.read(0, param);
+
+            double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+            int tw = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int th = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            // JPEG não tem canal alfa: transparência vira fundo branco
+            BufferedImage thumb = new BufferedImage(tw, th, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = thumb.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, tw, th);
+                g.drawImage(source, 0, 0, tw, th, null);
+            } finally {
+                g.dispose();
+            }
+            return encodeJpeg(thumb, quality);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try(ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
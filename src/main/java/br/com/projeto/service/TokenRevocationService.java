@@ -0,0 +1,121 @@
+package br.com.projeto.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.exception.ConstraintViolationException;
+
+import br.com.projeto.dao.RevokedTokenDAO;
+import br.com.projeto.models.RevokedToken;
+import br.com.projeto.utils.BloomFilter;
+import br.com.projeto.utils.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Lista de tokens revogados. A tabela {@code revoked_tokens} é a fonte de
+ * verdade; em memória ficam um Bloom filter (caminho rápido para o caso
+ * comum de token não revogado) e o conjunto exato jti → exp, de modo que a
+ * checagem por requisição nunca vai ao banco.
+ */
+@ApplicationScoped
+public class TokenRevocationService {
+
+    @Inject
+    RevokedTokenDAO revokedTokenDAO;
+
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.revocation.expected-entries", defaultValue = "100000")
+    long expectedEntries;
+
+    @ConfigProperty(name = "app.revocation.false-positive-rate", defaultValue = "0.001")
+    double falsePositiveRate;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev){
+        long now = nowSeconds();
+        BloomFilter b = newBloom();
+        for(RevokedToken r : revokedTokenDAO.listActive(now)){
+            revoked.put(r.jti, r.expiresAt);
+            b.put(r.jti);
+        }
+        bloom = b;
+    }
+
+    public boolean isRevoked(String jti){
+        if(jti == null) return false;
+        BloomFilter b = bloom;
+        if(b != null && !b.mightContain(jti)) return false;
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoga o token de forma idempotente. A gravação roda em transação
+     * própria: se um logout concorrente do mesmo token inserir a linha
+     * primeiro, a violação da chave primária é absorvida aqui. A memória só
+     * recebe a entrada depois do commit.
+     */
+    public void revoke(String jti, long expiresAt){
+        if(jti == null || expiresAt <= nowSeconds()) return;
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                if(!revokedTokenDAO.existsByJti(jti)){
+                    revokedTokenDAO.persist(RevokedToken.of(jti, expiresAt));
+                    revokedTokenDAO.flush();
+                }
+                txHooks.afterCommit(() -> publish(jti, expiresAt));
+            });
+        } catch(ConstraintViolationException e) {
+            // Só a chave primária pode falhar: confirma que a linha é do outro logout
+            if(!QuarkusTransaction.requiringNew().call(() -> revokedTokenDAO.existsByJti(jti))) throw e;
+            publish(jti, expiresAt);
+        }
+    }
+
+    private void publish(String jti, long expiresAt){
+        // Ordem importa: o conjunto exato antes do Bloom filter, para que um
+        // leitor que passe pelo filtro sempre encontre a entrada
+        revoked.put(jti, expiresAt);
+        BloomFilter b = bloom;
+        if(b != null) b.put(jti);
+    }
+
+    /**
+     * Remove entradas expiradas da tabela e da memória e reconstrói o
+     * Bloom filter apenas com as restantes.
+     */
+    @Scheduled(every = "${app.revocation.purge-interval:10m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void purgeExpired(){
+        long now = nowSeconds();
+        revokedTokenDAO.deleteExpired(now);
+        revoked.values().removeIf(exp -> exp <= now);
+        BloomFilter b = newBloom();
+        revoked.keySet().forEach(b::put);
+        // Revogações concorrentes com a reconstrução também entram no novo filtro
+        bloom = b;
+        revoked.keySet().forEach(b::put);
+    }
+
+    public int size(){
+        return revoked.size();
+    }
+
+    private BloomFilter newBloom(){
+        return new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), falsePositiveRate);
+    }
+
+    private static long nowSeconds(){
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,211 @@
+package br.com.projeto.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import br.com.projeto.dao.UploadSessionDAO;
+import br.com.projeto.models.EmployeeDocument;
+import br.com.projeto.models.UploadSession;
+import br.com.projeto.storage.DocumentStorage;
+import br.com.projeto.utils.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Uploads retomáveis de documentos. O cliente abre uma sessão, envia pedaços
+ * informando o offset em que cada um começa, consulta o offset confirmado
+ * para retomar depois de uma queda e, por fim, conclui a sessão num
+ * {@link EmployeeDocument}. Os pedaços vão direto para a área de staging do
+ * {@link DocumentStorage}, sem passar inteiros pela heap.
+ */
+@ApplicationScoped
+public class UploadSessionService {
+
+    private static final int COLLECT_BATCH = 200;
+
+    public enum Outcome { OK, NOT_FOUND, OFFSET_MISMATCH, BUSY, TOO_LARGE, INCOMPLETE, TOO_MANY }
+
+    public record OpenResult(Outcome outcome, UploadSession session) {}
+
+    public record AppendResult(Outcome outcome, long offset) {}
+
+    public record CompleteResult(Outcome outcome, EmployeeDocument document) {}
+
+    @Inject
+    UploadSessionDAO sessionDAO;
+
+    @Inject
+    DocumentStorage storage;
+
+    @Inject
+    EmployeeService employeeService;
+
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.upload.max-chunk-size", defaultValue = "8388608")
+    long maxChunkSize;
+
+    @ConfigProperty(name = "app.upload.max-size", defaultValue = "104857600")
+    long maxSize;
+
+    @ConfigProperty(name = "app.upload.max-open-sessions", defaultValue = "5")
+    int maxOpenSessions;
+
+    @ConfigProperty(name = "app.upload.session-ttl", defaultValue = "24h")
+    Duration sessionTtl;
+
+    // Sessões com um pedaço ou conclusão em andamento nesta instância
+    private final Set<UUID> busy = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Abre uma sessão para {@code totalSize} bytes, que precisa caber em
+     * {@code app.upload.max-size}. Cada usuário mantém no máximo
+     * {@code app.upload.max-open-sessions} sessões abertas; sessões
+     * abandonadas liberam a vaga quando o TTL as coleta.
+     */
+    @Transactional
+    public OpenResult open(UUID employeeId, UUID userId, String documentName, String fileName, String contentType, long totalSize) throws IOException {
+        if(totalSize > maxSize) return new OpenResult(Outcome.TOO_LARGE, null);
+        if(sessionDAO.countByCreator(userId) >= maxOpenSessions) return new OpenResult(Outcome.TOO_MANY, null);
+        UploadSession s = UploadSession.of(employeeId, userId, documentName, fileName, contentType, totalSize);
+        sessionDAO.persist(s);
+        // Reserva a área de staging já na criação
+        storage.appendStaged(s.stagingKey(), 0, InputStream.nullInputStream(), 0);
+        String key = s.stagingKey();
+        txHooks.afterRollback(() -> deleteStagedQuietly(key));
+        return new OpenResult(Outcome.OK, s);
+    }
+
+    /**
+     * Sessão {@code uploadId} do funcionário, desde que aberta pelo mesmo
+     * usuário; sessões de outros usuários são tratadas como inexistentes.
+     */
+    public Optional<UploadSession> find(String uploadId, String employeeId, UUID userId){
+        UUID id, eid;
+        try {
+            id = UUID.fromString(uploadId);
+            eid = UUID.fromString(employeeId);
+        } catch(IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return sessionDAO.findByIdOptional(id)
+            .filter(s -> s.employeeId.equals(eid) && s.createdBy.equals(userId));
+    }
+
+    /**
+     * Grava um pedaço que começa em {@code offset} e confirma o novo offset.
+     * Se a conexão cair no meio do pedaço, o que chegou também é confirmado.
+     */
+    public AppendResult append(UploadSession s, long offset, InputStream chunk, long length) throws IOException {
+        if(length > maxChunkSize) return new AppendResult(Outcome.TOO_LARGE, s.committedOffset);
+        // Sessões antigas podem não ter tamanho declarado: o teto global vale para todas
+        long limit = s.totalSize != null ? Math.min(s.totalSize, maxSize) : maxSize;
+        if(offset + length > limit) return new AppendResult(Outcome.TOO_LARGE, s.committedOffset);
+        if(!busy.add(s.id)) return new AppendResult(Outcome.BUSY, s.committedOffset);
+        try {
+            if(offset != s.committedOffset) return new AppendResult(Outcome.OFFSET_MISMATCH, s.committedOffset);
+            long newOffset = storage.appendStaged(s.stagingKey(), offset, chunk, length);
+            long now = System.currentTimeMillis();
+            boolean advanced = QuarkusTransaction.requiringNew().call(() -> sessionDAO.advance(s.id, offset, newOffset, now));
+            if(!advanced){
+                // Sessão concluída, abortada ou coletada enquanto o pedaço chegava
+                return new AppendResult(Outcome.NOT_FOUND, offset);
+            }
+            s.committedOffset = newOffset;
+            return new AppendResult(Outcome.OK, newOffset);
+        } finally {
+            busy.remove(s.id);
+        }
+    }
+
+    /**
+     * Conclui a sessão: o conteúdo acumulado vira o documento (novo ou
+     * substituindo o de mesmo nome) e a sessão é removida.
+     */
+    @Transactional
+    public CompleteResult complete(UploadSession s) throws IOException {
+        if(!busy.add(s.id)) return new CompleteResult(Outcome.BUSY, null);
+        try {
+            UploadSession cur = sessionDAO.findByIdOptional(s.id).orElse(null);
+            if(cur == null) return new CompleteResult(Outcome.NOT_FOUND, null);
+            if(cur.totalSize != null && cur.committedOffset != cur.totalSize){
+                return new CompleteResult(Outcome.INCOMPLETE, null);
+            }
+            String key = cur.stagingKey();
+            // Descarta bytes de um pedaço que não chegou a ser confirmado
+            storage.appendStaged(key, cur.committedOffset, InputStream.nullInputStream(), 0);
+            Path staged = storage.stagedPath(key);
+            String employeeId = cur.employeeId.toString();
+
+            EmployeeDocument doc;
+            if(employeeService.getDocument(employeeId, cur.documentName).isPresent()){
+                employeeService.updateDocument(employeeId, cur.documentName, cur.fileName, cur.contentType, staged);
+                doc = employeeService.getDocument(employeeId, cur.documentName).orElseThrow();
+            } else {
+                doc = employeeService.addDocument(employeeId, cur.documentName, cur.fileName, cur.contentType, staged);
+            }
+            sessionDAO.delete(cur);
+            txHooks.afterCommit(() -> deleteStagedQuietly(key));
+            return new CompleteResult(Outcome.OK, doc);
+        } finally {
+            busy.remove(s.id);
+        }
+    }
+
+    @Transactional
+    public boolean abort(UploadSession s){
+        if(!sessionDAO.deleteByIdIfPresent(s.id)) return false;
+        String key = s.stagingKey();
+        txHooks.afterCommit(() -> deleteStagedQuietly(key));
+        return true;
+    }
+
+    public long maxChunkSize(){
+        return maxChunkSize;
+    }
+
+    public long maxSize(){
+        return maxSize;
+    }
+
+    /**
+     * Remove sessões sem pedaços novos há mais que o TTL. O arquivo sai
+     * antes da linha: se a remoção for interrompida, sobra no máximo a linha,
+     * que a próxima coleta apaga.
+     */
+    @Scheduled(every = "${app.upload.gc-interval:15m}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void collectAbandoned(){
+        long cutoff = System.currentTimeMillis() - sessionTtl.toMillis();
+        for(UploadSession s : QuarkusTransaction.requiringNew().call(() -> sessionDAO.listIdleSince(cutoff, COLLECT_BATCH))){
+            if(!busy.add(s.id)) continue;
+            try {
+                storage.deleteStaged(s.stagingKey());
+                QuarkusTransaction.requiringNew().run(() -> sessionDAO.deleteByIdIfPresent(s.id));
+            } catch(IOException | RuntimeException e) {
+                // Fica para a próxima coleta
+            } finally {
+                busy.remove(s.id);
+            }
+        }
+    }
+
+    private void deleteStagedQuietly(String key){
+        try {
+            storage.deleteStaged(key);
+        } catch(IOException | RuntimeException e) {
+            // Staging órfão não afeta a consistência; a sessão já não existe
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.projeto.service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import br.com.projeto.dao.UserDAO;
+import br.com.projeto.utils.TransactionHooks;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Cache read-through do diretório de usuários: existência de admin,
+ * id → papel e username → id. Nunca guarda hash de senha.
+ * As escritas em {@link AuthService} avisam o cache depois do commit, de modo
+ * que leitores concorrentes não recarreguem um valor antigo.
+ */
+@ApplicationScoped
+public class UserDirectoryCache {
+
+    @Inject
+    UserDAO userDAO;
+
+    @Inject
+    TransactionHooks txHooks;
+
+    @ConfigProperty(name = "app.user-cache.max-size", defaultValue = "50000")
+    int maxSize;
+
+    // Só muda de false para true: usuários não são removidos
+    private volatile boolean hasAdmin;
+    private final ConcurrentHashMap<UUID, String> roleById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> idByUsername = new ConcurrentHashMap<>();
+
+    private final Counter hasAdminStats = new Counter();
+    private final Counter roleStats = new Counter();
+    private final Counter usernameStats = new Counter();
+
+    public boolean hasAdmin(){
+        if(hasAdmin){
+            hasAdminStats.hits.increment();
+            return true;
+        }
+        hasAdminStats.misses.increment();
+        boolean found = userDAO.find("role", "admin").firstResultOptional().isPresent();
+        if(found) hasAdmin = true;
+        return found;
+    }
+
+    public Optional<String> roleOf(UUID userId){
+        String role = roleById.get(userId);
+        if(role != null){
+            roleStats.hits.increment();
+            return Optional.of(role);
+        }
+        roleStats.misses.increment();
+        Optional<String> loaded = userDAO.findRoleById(userId);
+        loaded.ifPresent(r -> put(roleById, userId, r));
+        return loaded;
+    }
+
+    public Optional<UUID> idOf(String username){
+        UUID id = idByUsername.get(username);
+        if(id != null){
+            usernameStats.hits.increment();
+            return Optional.of(id);
+        }
+        usernameStats.misses.increment();
+        Optional<UUID> loaded = userDAO.findIdByUsername(username);
+        loaded.ifPresent(i -> put(idByUsername, username, i));
+        return loaded;
+    }
+
+    /** Chamado após o commit do cadastro de um usuário. */
+    public void userCreated(UUID id, String username, String role){
+        txHooks.afterCommit(() -> {
+            put(idByUsername, username, id);
+            put(roleById, id, role);
+            if("admin".equals(role)) hasAdmin = true;
+        });
+    }
+
+    /** Chamado quando o papel de um usuário muda. */
+    public void roleChanged(UUID id){
+        // Remove já e de novo após o commit, para descartar recargas feitas no meio
+        roleById.remove(id);
+        txHooks.afterCommit(() -> roleById.remove(id));
+    }
+
+    private <K, V> void put(ConcurrentHashMap<K, V> map, K key, V value){
+        // Limite simples: ao encher, recomeça vazio (os dados são recarregáveis)
+        if(map.size() >= maxSize) map.clear();
+        map.put(key, value);
+    }
+
+    public Counter hasAdminStats(){ return hasAdminStats; }
+    public Counter roleStats(){ return roleStats; }
+    public Counter usernameStats(){ return usernameStats; }
+
+    public static final class Counter {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        public long hits(){ return hits.sum(); }
+        public long misses(){ return misses.sum(); }
+        public double hitRatio(){
+            long h = hits(), total = h + misses();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Visão de leitura de um objeto armazenado: tamanho, arquivo local (quando
+ * existir, para envio zero-copy) e abertura em streaming a partir de um
+ * deslocamento. Conteúdo comprimido é decodificado em streaming; nesse caso
+ * não há arquivo local com os bytes originais.
+ */
+public final class BlobContent {
+
+    private final DocumentStorage storage;
+    private final String key;
+    private final long length;
+    private final ContentEncoding encoding;
+
+    public BlobContent(DocumentStorage storage, String key, long length, ContentEncoding encoding){
+        this.storage = storage;
+        this.key = key;
+        this.length = length;
+        this.encoding = ContentEncoding.orIdentity(encoding);
+    }
+
+    public long length(){
+        return length;
+    }
+
+    /** Arquivo local com os bytes originais, se houver (para zero-copy). */
+    public Optional<Path> file(){
+        if(encoding != ContentEncoding.IDENTITY) return Optional.empty();
+        return storage.localPath(key);
+    }
+
+    public InputStream open() throws IOException {
+        InputStream stored = storage.open(key);
+        try {
+            return encoding.decode(stored);
+        } catch(IOException | RuntimeException e) {
+            stored.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre a partir de {@code offset}. Conteúdo comprimido é decodificado
+     * desde o início; para vários intervalos, use um único {@link #open()}.
+     */
+    public InputStream open(long offset) throws IOException {
+        InputStream in = open();
+        try {
+            in.skipNBytes(offset);
+            return in;
+        } catch(IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
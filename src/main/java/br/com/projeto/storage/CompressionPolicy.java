@@ -0,0 +1,85 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Decide se um conteúdo novo deve ser gravado comprimido. Só entram tipos da
+ * lista configurada, acima do tamanho mínimo, e que passem numa amostragem:
+ * algumas janelas espalhadas pelo arquivo são comprimidas com o nível mais
+ * rápido e a razão obtida precisa ficar abaixo do limite. Assim PDFs cheios
+ * de imagens já comprimidas não pagam a compressão à toa.
+ */
+@ApplicationScoped
+public class CompressionPolicy {
+
+    static final int SAMPLE_WINDOWS = 4;
+    static final int WINDOW_SIZE = 16 * 1024;
+
+    @ConfigProperty(name = "app.storage.compression.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.storage.compression.content-types", defaultValue = "application/pdf,application/xml,application/json,text/*")
+    List<String> contentTypes;
+
+    @ConfigProperty(name = "app.storage.compression.min-size", defaultValue = "4096")
+    long minSize;
+
+    @ConfigProperty(name = "app.storage.compression.max-ratio", defaultValue = "0.9")
+    double maxRatio;
+
+    public ContentEncoding choose(Path source, String contentType, long size) throws IOException {
+        if(!enabled || size < minSize || !accepts(contentType)) return ContentEncoding.IDENTITY;
+        return sampleRatio(source, size) <= maxRatio ? ContentEncoding.GZIP : ContentEncoding.IDENTITY;
+    }
+
+    boolean accepts(String contentType){
+        if(contentType == null) return false;
+        int semi = contentType.indexOf(';');
+        String type = (semi < 0 ? contentType : contentType.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+        for(String pattern : contentTypes){
+            String p = pattern.trim().toLowerCase(Locale.ROOT);
+            if(p.endsWith("/*") ? type.startsWith(p.substring(0, p.length() - 1)) : type.equals(p)) return true;
+        }
+        return false;
+    }
+
+    /** Razão comprimido/original das janelas amostradas (1.0 = incompressível). */
+    static double sampleRatio(Path source, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+        byte[] out = new byte[WINDOW_SIZE];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        long sampled = 0, compressed = 0;
+        try(FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long span = Math.max(0, size - WINDOW_SIZE);
+            for(int i = 0; i < SAMPLE_WINDOWS; i++){
+                long pos = SAMPLE_WINDOWS == 1 ? 0 : span * i / (SAMPLE_WINDOWS - 1);
+                window.clear();
+                while(window.hasRemaining() && in.read(window, pos + window.position()) > 0){}
+                window.flip();
+                if(!window.hasRemaining()) continue;
+                sampled += window.remaining();
+                deflater.reset();
+                deflater.setInput(window);
+                deflater.finish();
+                while(!deflater.finished()){
+                    compressed += deflater.deflate(out);
+                }
+                if(span == 0) break; // arquivo cabe numa janela
+            }
+        } finally {
+            deflater.end();
+        }
+        return sampled == 0 ? 1.0 : (double) compressed / sampled;
+    }
+}
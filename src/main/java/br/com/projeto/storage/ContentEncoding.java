@@ -0,0 +1,41 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificação do objeto gravado no {@link DocumentStorage}. O conteúdo
+ * comprimido fica sob uma chave própria ({@code <sha256>.gz}), de modo que
+ * versões com codificações diferentes do mesmo conteúdo nunca se sobrescrevem.
+ */
+public enum ContentEncoding {
+
+    IDENTITY(""),
+    GZIP(".gz");
+
+    private final String keySuffix;
+
+    ContentEncoding(String keySuffix){
+        this.keySuffix = keySuffix;
+    }
+
+    public String keyFor(String sha256){
+        return sha256 + keySuffix;
+    }
+
+    /** Decodifica em streaming, sem materializar o conteúdo. */
+    public InputStream decode(InputStream stored) throws IOException {
+        return this == GZIP ? new GZIPInputStream(stored, StreamingDigest.BUFFER_SIZE) : stored;
+    }
+
+    OutputStream encode(OutputStream target) throws IOException {
+        return this == GZIP ? new GZIPOutputStream(target, StreamingDigest.BUFFER_SIZE) : target;
+    }
+
+    public static ContentEncoding orIdentity(ContentEncoding e){
+        return e == null ? IDENTITY : e;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Armazenamento do conteúdo dos documentos, fora do banco. A linha em
+ * {@code employee_documents} guarda apenas os metadados e a chave retornada
+ * por {@link #write}.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Grava o conteúdo sob uma nova chave. A gravação é atômica: ou o objeto
+     * fica completo sob a chave retornada, ou nada é gravado.
+     */
+    StoredBlob write(InputStream content) throws IOException;
+
+    /**
+     * Grava o conteúdo de um arquivo local (ex.: o temporário do multipart)
+     * sem carregá-lo na heap. Tamanho e SHA-256 são calculados na mesma
+     * passada da cópia.
+     */
+    StoredBlob write(Path source) throws IOException;
+
+    /**
+     * Grava o conteúdo sob a chave derivada do seu SHA-256 (endereçamento por
+     * conteúdo), aplicando a codificação pedida. Se o hash calculado na cópia
+     * não coincidir com {@code sha256}, nada é publicado. Gravar de novo uma
+     * chave existente é inofensivo: o conteúdo é o mesmo.
+     */
+    StoredBlob writeContent(Path source, String sha256, ContentEncoding encoding) throws IOException;
+
+    /**
+     * Abre o conteúdo para leitura.
+     * @throws java.nio.file.NoSuchFileException se a chave não existir
+     */
+    InputStream open(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    boolean exists(String key);
+
+    /** Remove o objeto; retorna false se ele não existia. */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Acrescenta um pedaço ao upload em andamento {@code uploadId} a partir de
+     * {@code offset}. Bytes além do offset, de uma tentativa anterior não
+     * confirmada, são descartados. Lê no máximo {@code length} bytes; se o
+     * cliente cair no meio, o que já chegou é mantido. Retorna o novo tamanho
+     * do upload.
+     */
+    long appendStaged(String uploadId, long offset, InputStream chunk, long length) throws IOException;
+
+    /** Arquivo local com o conteúdo acumulado do upload em andamento. */
+    Path stagedPath(String uploadId);
+
+    boolean deleteStaged(String uploadId) throws IOException;
+
+    /**
+     * Caminho local do objeto, quando a implementação guarda em disco.
+     * Permite que a leitura use zero-copy.
+     */
+    default Optional<Path> localPath(String key){
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.projeto.storage;
+
+/**
+ * Quanto esperar pelo disco antes de considerar uma gravação concluída.
+ */
+public enum FsyncPolicy {
+    /** Confia no cache do sistema operacional. */
+    NONE,
+    /** fsync do arquivo antes do rename. */
+    FILE,
+    /** fsync do arquivo e do diretório de destino (o rename também é durável). */
+    FILE_AND_DIRECTORY
+}
@@ -0,0 +1,221 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * {@link DocumentStorage} em disco local. Os objetos ficam em diretórios
+ * fragmentados pelos primeiros caracteres da chave ({@code ab/cd/abcd...})
+ * para não concentrar milhares de arquivos num só diretório. Cada gravação
+ * vai para um arquivo temporário no mesmo volume e é publicada com um rename
+ * atômico.
+ */
+@ApplicationScoped
+public class LocalFileSystemStorage implements DocumentStorage {
+
+    @ConfigProperty(name = "app.storage.local.root", defaultValue = "data/documents")
+    Path root;
+
+    @ConfigProperty(name = "app.storage.local.fsync", defaultValue = "file")
+    FsyncPolicy fsync;
+
+    Path tmpDir;
+    Path stagingDir;
+
+    @PostConstruct
+    void init(){
+        try {
+            tmpDir = root.resolve("tmp");
+            stagingDir = root.resolve("uploads");
+            Files.createDirectories(tmpDir);
+            Files.createDirectories(stagingDir);
+        } catch(IOException e) {
+            throw new IllegalStateException("Não foi possível preparar o diretório de documentos " + root, e);
+        }
+    }
+
+    @Override
+    public StoredBlob write(InputStream content) throws IOException {
+        return write(Channels.newChannel(content), null, ContentEncoding.IDENTITY);
+    }
+
+    @Override
+    public StoredBlob write(Path source) throws IOException {
+        try(FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return write(in, null, ContentEncoding.IDENTITY);
+        }
+    }
+
+    @Override
+    public StoredBlob writeContent(Path source, String sha256, ContentEncoding encoding) throws IOException {
+        resolve(encoding.keyFor(sha256)); // valida a chave antes de copiar
+        try(FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return write(in, sha256, encoding);
+        }
+    }
+
+    // expectedSha256 == null: chave aleatória; senão a chave deriva do hash
+    private StoredBlob write(ReadableByteChannel in, String expectedSha256, ContentEncoding encoding) throws IOException {
+        Path tmp = newTempFile();
+        try {
+            StreamingDigest.Result copied;
+            long stored;
+            if(encoding == ContentEncoding.IDENTITY){
+                try(FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    copied = StreamingDigest.copy(in, out);
+                    if(fsync != FsyncPolicy.NONE) out.force(true);
+                }
+            } else {
+                // O digest é do conteúdo original, lido antes do encoder.
+                // Fechar o encoder fecha o canal, por isso o fsync reabre o arquivo.
+                try(OutputStream encoder = encoding.encode(Channels.newOutputStream(FileChannel.open(tmp, StandardOpenOption.WRITE)))) {
+                    copied = StreamingDigest.copy(in, Channels.newChannel(encoder));
+                }
+                if(fsync != FsyncPolicy.NONE){
+                    try(FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                        out.force(true);
+                    }
+                }
+            }
+            stored = Files.size(tmp);
+            if(expectedSha256 != null && !expectedSha256.equals(copied.sha256())){
+                throw new IOException("Conteúdo alterado durante a gravação");
+            }
+            String key = expectedSha256 != null ? encoding.keyFor(expectedSha256) : newKey();
+            publish(tmp, key);
+            return new StoredBlob(key, copied.size(), copied.sha256(), stored, encoding);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public long appendStaged(String uploadId, long offset, InputStream chunk, long length) throws IOException {
+        Path staged = stagedPath(uploadId);
+        try(FileChannel out = FileChannel.open(staged, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if(offset > out.size()) throw new IOException("Offset além do conteúdo recebido");
+            ByteBuffer buf = ByteBuffer.allocate(StreamingDigest.BUFFER_SIZE);
+            long position = offset;
+            long remaining = length;
+            while(remaining > 0){
+                int n;
+                try {
+                    n = chunk.read(buf.array(), 0, (int) Math.min(buf.capacity(), remaining));
+                } catch(IOException e) {
+                    break; // conexão caiu: mantém o que já foi gravado
+                }
+                if(n < 0) break;
+                buf.position(0).limit(n);
+                while(buf.hasRemaining()){
+                    position += out.write(buf, position);
+                }
+                remaining -= n;
+            }
+            out.truncate(position);
+            if(fsync != FsyncPolicy.NONE) out.force(true);
+            return position;
+        }
+    }
+
+    @Override
+    public Path stagedPath(String uploadId) {
+        validateKey(uploadId);
+        return stagingDir.resolve(uploadId + ".part");
+    }
+
+    @Override
+    public boolean deleteStaged(String uploadId) throws IOException {
+        return Files.deleteIfExists(stagedPath(uploadId));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        Path p = resolve(key);
+        return Files.exists(p) ? Optional.of(p) : Optional.empty();
+    }
+
+    /**
+     * Cria um arquivo temporário no volume do armazenamento, para que
+     * gravações feitas por outras camadas possam ser publicadas com rename.
+     */
+    Path newTempFile() throws IOException {
+        return Files.createTempFile(tmpDir, "upload-", ".part");
+    }
+
+    /**
+     * Move o arquivo temporário para o local definitivo da chave.
+     */
+    void publish(Path tmp, String key) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if(fsync == FsyncPolicy.FILE_AND_DIRECTORY) syncDirectory(target.getParent());
+    }
+
+    Path resolve(String key){
+        validateKey(key != null && key.endsWith(".gz") ? key.substring(0, key.length() - 3) : key);
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static void validateKey(String hex){
+        if(hex == null || hex.length() < 8 || !hex.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))){
+            throw new IllegalArgumentException("Chave de armazenamento inválida");
+        }
+    }
+
+    private static String newKey(){
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static void syncDirectory(Path dir) throws IOException {
+        try(FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch(IOException e) {
+            // Alguns sistemas de arquivos não permitem fsync de diretório
+            if(!(e instanceof NoSuchFileException)) return;
+            throw e;
+        }
+    }
+}
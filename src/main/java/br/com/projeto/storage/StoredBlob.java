@@ -0,0 +1,13 @@
+package br.com.projeto.storage;
+
+/**
+ * Resultado de uma gravação no {@link DocumentStorage}: chave, tamanho em
+ * bytes e SHA-256 (hexadecimal) do conteúdo original, além do tamanho
+ * efetivamente gravado e da codificação usada.
+ */
+public record StoredBlob(String key, long size, String sha256, long storedSize, ContentEncoding encoding) {
+
+    public StoredBlob(String key, long size, String sha256){
+        this(key, size, sha256, size, ContentEncoding.IDENTITY);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.projeto.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copia um canal para outro com um buffer de tamanho fixo, calculando o
+ * tamanho e o SHA-256 na mesma passada. A memória usada não depende do
+ * tamanho do conteúdo.
+ */
+public final class StreamingDigest {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    public record Result(long size, String sha256) {}
+
+    private StreamingDigest(){}
+
+    static Result copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        MessageDigest md = sha256();
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+        while(in.read(buf) >= 0 || buf.position() > 0){
+            buf.flip();
+            // O digest lê a mesma janela que será gravada, sem cópia extra
+            ByteBuffer view = buf.duplicate();
+            md.update(view);
+            while(buf.hasRemaining()){
+                size += out.write(buf);
+            }
+            buf.clear();
+        }
+        return new Result(size, HexFormat.of().formatHex(md.digest()));
+    }
+
+    /**
+     * Apenas lê o arquivo, sem gravar nada: usado para descobrir a chave de
+     * um conteúdo antes de decidir se ele precisa ser armazenado.
+     */
+    public static Result digest(Path file) throws IOException {
+        MessageDigest md = sha256();
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+        try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            int n;
+            while((n = in.read(buf)) >= 0){
+                buf.flip();
+                md.update(buf);
+                size += n;
+                buf.clear();
+            }
+        }
+        return new Result(size, HexFormat.of().formatHex(md.digest()));
+    }
+
+    static MessageDigest sha256(){
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.projeto.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter de strings, seguro para uso concorrente.
+ * Não tem falsos negativos: {@link #mightContain} retornar false garante que
+ * o valor nunca foi adicionado.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate){
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(Math.max(1, words));
+        this.bitCount = (long) bits.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value){
+        long h = hash64(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for(int i = 1; i <= hashCount; i++){
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long old;
+            do{
+                old = bits.get(word);
+                if((old & mask) != 0) break;
+            } while(!bits.compareAndSet(word, old, old | mask));
+        }
+    }
+
+    public boolean mightContain(String value){
+        long h = hash64(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for(int i = 1; i <= hashCount; i++){
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits seguido da finalização do MurmurHash3
+    private static long hash64(String s){
+        long h = 0xcbf29ce484222325L;
+        for(int i = 0; i < s.length(); i++){
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
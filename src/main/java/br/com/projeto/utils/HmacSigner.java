@@ -0,0 +1,81 @@
+package br.com.projeto.utils;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Assinador HMAC-SHA256 com chave configurada uma única vez.
+ * Mantém um pool limitado de instâncias de {@link Mac} já inicializadas,
+ * obtidas por clone do protótipo, para evitar a busca do provider e o
+ * {@code init} da chave a cada chamada. Não depende de ThreadLocal, então
+ * funciona igual em threads de plataforma e virtuais.
+ */
+public final class HmacSigner {
+
+    public static final String ALGORITHM = "HmacSHA256";
+    public static final int SIGNATURE_LENGTH = 32;
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final ArrayBlockingQueue<Mac> pool;
+
+    public HmacSigner(byte[] key, int poolSize){
+        this.key = new SecretKeySpec(key, ALGORITHM);
+        this.prototype = newMac();
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    public byte[] sign(byte[] data, int offset, int length){
+        Mac mac = acquire();
+        try{
+            mac.update(data, offset, length);
+            return mac.doFinal();
+        } finally {
+            release(mac);
+        }
+    }
+
+    public byte[] sign(byte[] data){
+        return sign(data, 0, data.length);
+    }
+
+    /**
+     * Compara a assinatura em tempo constante sobre os bytes crus.
+     */
+    public boolean verify(byte[] data, int offset, int length, byte[] signature){
+        if(signature == null || signature.length != SIGNATURE_LENGTH) return false;
+        return MessageDigest.isEqual(sign(data, offset, length), signature);
+    }
+
+    private Mac acquire(){
+        Mac mac = pool.poll();
+        if(mac != null) return mac;
+        try{
+            synchronized(prototype){
+                return (Mac) prototype.clone();
+            }
+        } catch(CloneNotSupportedException e){
+            // Provider sem suporte a clone: inicializa uma nova instância
+            return newMac();
+        }
+    }
+
+    private Mac newMac(){
+        try{
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch(GeneralSecurityException e){
+            throw new IllegalStateException("Não foi possível inicializar " + ALGORITHM, e);
+        }
+    }
+
+    private void release(Mac mac){
+        mac.reset();
+        pool.offer(mac);
+    }
+}
@@ -2,99 +2,96 @@ package br.com.projeto.utils;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Base64;
 import java.util.UUID;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import br.com.projeto.audit.AuditLog;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class JwtUtil {
 
     @ConfigProperty(name = "app.jwt.secret", defaultValue = "dev-secret")
     String secret;
+
+    @ConfigProperty(name = "app.jwt.signer-pool-size", defaultValue = "64")
+    int signerPoolSize;
+
+    @Inject
+    AuditLog auditLog;
+
+    // Chave HMAC configurada uma única vez na inicialização
+    HmacSigner signer;
     
-    // Log temporário para debug
     @jakarta.annotation.PostConstruct
     void init() {
-        System.out.println("🔑 JWT Secret configurado: " + (secret != null ? secret.substring(0, Math.min(3, secret.length())) + "***" : "NULL"));
+        signer = new HmacSigner(secret.getBytes(StandardCharsets.UTF_8), signerPoolSize);
     }
 
     public String createToken(UUID id, String username, String role, long expiresInSeconds){
-        String headerJson = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
         long now = Instant.now().getEpochSecond();
-        long exp = now + expiresInSeconds;
-        String payloadJson = String.format("{\"id\":\"%s\",\"username\":\"%s\",\"role\":\"%s\",\"iat\":%d,\"exp\":%d}",
-            id, escape(username), role, now, exp);
-        String header = base64UrlEncode(headerJson.getBytes(StandardCharsets.UTF_8));
-        String payload = base64UrlEncode(payloadJson.getBytes(StandardCharsets.UTF_8));
-        String signature = hmacSha256(header + "." + payload, secret);
-        return header + "." + payload + "." + signature;
+        TokenPayload claims = new TokenPayload(id.toString(), username, role, now, now + expiresInSeconds);
+        claims.jti = UUID.randomUUID().toString();
+        return TokenCodec.encode(claims, signer);
     }
 
-    public TokenPayload validateToken(String token){
+    /**
+     * Valida o token e devolve as claims, ou null. Toda rejeição gera um
+     * evento de auditoria com o {@code path} da requisição.
+     */
+    public TokenPayload validateToken(String token, String path){
         try{
-            if(token == null || token.isBlank()) return null;
+            if(token == null || token.isBlank()) return malformed(path);
             
-            String[] parts = token.split("\\.");
-            if(parts.length != 3) return null;
+            // Localizar os dois pontos por índice (header.payload.assinatura)
+            int firstDot = token.indexOf('.');
+            if(firstDot <= 0) return malformed(path);
+            int secondDot = token.indexOf('.', firstDot + 1);
+            if(secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) return malformed(path);
+            if(token.length() - secondDot - 1 != TokenCodec.SIGNATURE_CHARS) return malformed(path);
             
-            String header = parts[0];
-            String payload = parts[1];
-            String signature = parts[2];
-            
-            // Verificar assinatura
-            String expectedSignature = hmacSha256(header + "." + payload, secret);
-            if(!signature.equals(expectedSignature)) {
-                System.err.println("❌ Token assinatura inválida! Expected: " + expectedSignature.substring(0, 10) + "... Got: " + signature.substring(0, 10) + "...");
-                System.err.println("   Secret usado: " + secret.substring(0, 3) + "***");
+            // Verificar assinatura (comparação em tempo constante sobre os bytes crus)
+            byte[] signature = new byte[HmacSigner.SIGNATURE_LENGTH];
+            int sigLen = TokenCodec.decodeBase64(token, secondDot + 1, TokenCodec.SIGNATURE_CHARS, signature);
+            if(sigLen != HmacSigner.SIGNATURE_LENGTH) return malformed(path);
+            byte[] signingInput = new byte[secondDot];
+            for(int i = 0; i < secondDot; i++){
+                char c = token.charAt(i);
+                if(c > 0x7f) return malformed(path);
+                signingInput[i] = (byte) c;
+            }
+            if(!signer.verify(signingInput, 0, secondDot, signature)) {
+                auditLog.authFailure(path, "invalid_signature");
                 return null;
             }
             
             // Decodificar payload
-            String payloadJson = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
-            System.out.println("✅ Token válido (assinatura OK), payload: " + payloadJson);
-            ObjectMapper mapper = new ObjectMapper();
-            TokenPayload tokenPayload = mapper.readValue(payloadJson, TokenPayload.class);
+            int payloadChars = secondDot - firstDot - 1;
+            byte[] claims = new byte[TokenCodec.decodedLength(payloadChars)];
+            int claimsLen = TokenCodec.decodeBase64(token, firstDot + 1, payloadChars, claims);
+            if(claimsLen < 0) return malformed(path);
+            TokenPayload tokenPayload = TokenCodec.readClaims(claims, 0, claimsLen);
+            if(tokenPayload == null) return malformed(path);
             
             // Verificar expiração
             long now = Instant.now().getEpochSecond();
             if(tokenPayload.exp <= now) {
-                System.err.println("❌ Token expirado! exp=" + tokenPayload.exp + " now=" + now + " diff=" + (now - tokenPayload.exp) + "s");
+                auditLog.tokenExpired(tokenPayload.username);
                 return null;
             }
             
-            System.out.println("✅ Token válido e não expirado");
             return tokenPayload;
         } catch(Exception e){
-            System.err.println("❌ Erro ao validar token: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+            return malformed(path);
         }
     }
 
-    private static String escape(String s){
-        return s.replace("\\", "\\\\").replace("\"", "\\\"");
-    }
-
-    private static String base64UrlEncode(byte[] bytes){
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-
-    private static String hmacSha256(String data, String key){
-        try{
-            javax.crypto.Mac mac = javax.crypto.Mac.getInstance("HmacSHA256");
-            javax.crypto.spec.SecretKeySpec secretKey = new javax.crypto.spec.SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(secretKey);
-            byte[] sig = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return base64UrlEncode(sig);
-        } catch(Exception e){
-            throw new RuntimeException(e);
-        }
+    private TokenPayload malformed(String path){
+        auditLog.authFailure(path, "malformed_token");
+        return null;
     }
 
     @RegisterForReflection
@@ -104,8 +101,9 @@ public class JwtUtil {
         public String role;
         public long iat;
         public long exp;
+        public String jti; // identificador único do token, usado na revogação
         
-        // Construtor padrão necessário para Jackson + GraalVM Native Image
+        // Construtor padrão necessário para GraalVM Native Image
         public TokenPayload() {}
         
         public TokenPayload(String id, String username, String role, long iat, long exp) {
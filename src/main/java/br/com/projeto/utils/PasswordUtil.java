@@ -2,17 +2,88 @@ package br.com.projeto.utils;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 public class PasswordUtil {
+
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PBKDF2_PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public static String sha256(String input){
         try{
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for(byte b : hash){ sb.append(String.format("%02x", b)); }
-            return sb.toString();
+            return HexFormat.of().formatHex(hash);
+        } catch(Exception e){
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gera o hash PBKDF2 no formato {@code pbkdf2-sha256$iterações$salt$hash}
+     * (salt e hash em Base64).
+     */
+    public static String pbkdf2(String password, int iterations){
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PBKDF2_PREFIX + "$" + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Confere a senha contra o hash armazenado, aceitando também o formato
+     * antigo (SHA-256 em hexadecimal). A comparação é em tempo constante.
+     */
+    public static boolean verify(String password, String stored){
+        if(password == null || stored == null) return false;
+        if(!stored.startsWith(PBKDF2_PREFIX + "$")){
+            return MessageDigest.isEqual(
+                sha256(password).getBytes(StandardCharsets.US_ASCII),
+                stored.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = stored.split("\\$");
+        if(parts.length != 4) return false;
+        try{
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, iterations), expected);
+        } catch(IllegalArgumentException e){
+            return false;
+        }
+    }
+
+    /**
+     * Indica se o hash armazenado está no formato antigo ou com custo
+     * menor que o configurado e deve ser refeito.
+     */
+    public static boolean needsRehash(String stored, int iterations){
+        if(stored == null || !stored.startsWith(PBKDF2_PREFIX + "$")) return true;
+        String[] parts = stored.split("\\$");
+        try{
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch(NumberFormatException e){
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations){
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try{
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
         } catch(Exception e){
             throw new RuntimeException(e);
+        } finally {
+            spec.clearPassword();
         }
     }
 }
@@ -0,0 +1,44 @@
+package br.com.projeto.utils;
+
+/**
+ * Papéis conhecidos pela aplicação e seus bits para checagem por máscara.
+ */
+public final class Roles {
+
+    public static final String ADMIN = "admin";
+    public static final String GESTOR = "gestor";
+    public static final String FUNCIONARIO = "funcionario";
+
+    public static final int ADMIN_BIT = 1;
+    public static final int GESTOR_BIT = 1 << 1;
+    public static final int FUNCIONARIO_BIT = 1 << 2;
+
+    private Roles(){}
+
+    /**
+     * Bit do papel, ou 0 se o papel for desconhecido (ou null).
+     */
+    public static int bit(String role){
+        if(role == null) return 0;
+        return switch(role){
+            case ADMIN -> ADMIN_BIT;
+            case GESTOR -> GESTOR_BIT;
+            case FUNCIONARIO -> FUNCIONARIO_BIT;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Máscara com os bits de todos os papéis informados.
+     * Lança IllegalArgumentException para papéis desconhecidos.
+     */
+    public static int mask(String... roles){
+        int mask = 0;
+        for(String r : roles){
+            int b = bit(r);
+            if(b == 0) throw new IllegalArgumentException("Papel desconhecido: " + r);
+            mask |= b;
+        }
+        return mask;
+    }
+}
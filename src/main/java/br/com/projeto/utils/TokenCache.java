@@ -0,0 +1,140 @@
+package br.com.projeto.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Cache limitado de tokens já validados.
+ * A chave é o segmento de assinatura do token (o próprio HMAC), e a entrada
+ * guarda o token completo para confirmar a igualdade no acerto. Cada entrada
+ * expira no {@code exp} do próprio token.
+ * As entradas ficam repartidas em faixas por hash, cada uma um mapa LRU com
+ * seu próprio lock e no máximo {@code max-size / STRIPES} entradas: inserir
+ * num cache cheio descarta só a menos usada da faixa. Entradas expiradas
+ * saem no acerto ou na varredura agendada, nunca no caminho do {@code put}.
+ */
+@ApplicationScoped
+public class TokenCache {
+
+    private static final int STRIPES = 64;
+
+    @ConfigProperty(name = "app.jwt.cache.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @SuppressWarnings("unchecked")
+    private final LinkedHashMap<String, Entry>[] stripes = new LinkedHashMap[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    void init(){
+        int perStripe = Math.max(1, maxSize / STRIPES);
+        for(int i = 0; i < STRIPES; i++){
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest){
+                    if(size() <= perStripe) return false;
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+    }
+
+    public JwtUtil.TokenPayload get(String token){
+        String key = keyOf(token);
+        if(key == null){
+            misses.increment();
+            return null;
+        }
+        LinkedHashMap<String, Entry> stripe = stripeOf(key);
+        Entry e;
+        synchronized(stripe){
+            e = stripe.get(key);
+            if(e != null && e.token.equals(token) && e.payload.exp <= nowSeconds()){
+                stripe.remove(key);
+                e = null;
+            }
+        }
+        if(e == null || !e.token.equals(token)){
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.payload;
+    }
+
+    public void put(String token, JwtUtil.TokenPayload payload){
+        String key = keyOf(token);
+        if(key == null || payload == null) return;
+        LinkedHashMap<String, Entry> stripe = stripeOf(key);
+        synchronized(stripe){
+            stripe.put(key, new Entry(token, payload));
+        }
+    }
+
+    public void invalidate(String token){
+        String key = keyOf(token);
+        if(key == null) return;
+        LinkedHashMap<String, Entry> stripe = stripeOf(key);
+        synchronized(stripe){
+            stripe.remove(key);
+        }
+    }
+
+    public void clear(){
+        for(LinkedHashMap<String, Entry> stripe : stripes){
+            synchronized(stripe){
+                stripe.clear();
+            }
+        }
+    }
+
+    public int size(){
+        int n = 0;
+        for(LinkedHashMap<String, Entry> stripe : stripes){
+            synchronized(stripe){
+                n += stripe.size();
+            }
+        }
+        return n;
+    }
+    public long hits(){ return hits.sum(); }
+    public long misses(){ return misses.sum(); }
+    public long evictions(){ return evictions.sum(); }
+
+    @Scheduled(every = "1m", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void evictExpired(){
+        long now = nowSeconds();
+        for(LinkedHashMap<String, Entry> stripe : stripes){
+            synchronized(stripe){
+                stripe.values().removeIf(e -> e.payload.exp <= now);
+            }
+        }
+    }
+
+    private LinkedHashMap<String, Entry> stripeOf(String key){
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static String keyOf(String token){
+        if(token == null) return null;
+        int dot = token.lastIndexOf('.');
+        if(dot < 0 || dot == token.length() - 1) return null;
+        return token.substring(dot + 1);
+    }
+
+    private static long nowSeconds(){
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private record Entry(String token, JwtUtil.TokenPayload payload) {}
+}
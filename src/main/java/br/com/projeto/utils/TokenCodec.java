@@ -0,0 +1,425 @@
+package br.com.projeto.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec compacto para o conjunto fixo de claims do token
+ * ({@code id}, {@code username}, {@code role}, {@code iat}, {@code exp}, {@code jti}).
+ * Faz Base64URL e JSON direto sobre arrays de bytes, sem reflection e sem
+ * criar um ObjectMapper por chamada. Os buffers de trabalho são locais a cada
+ * chamada e dimensionados pelo token em questão (algumas centenas de bytes),
+ * sem ThreadLocal, pelo mesmo motivo do {@link HmacSigner}.
+ */
+final class TokenCodec {
+
+    /** {"alg":"HS256","typ":"JWT"} já codificado. */
+    static final String HEADER = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9";
+    static final int SIGNATURE_CHARS = 43; // 32 bytes em Base64URL sem padding
+
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE = new byte[128];
+
+    private static final byte[] K_ID = bytes("id");
+    private static final byte[] K_USERNAME = bytes("username");
+    private static final byte[] K_ROLE = bytes("role");
+    private static final byte[] K_IAT = bytes("iat");
+    private static final byte[] K_EXP = bytes("exp");
+    private static final byte[] K_JTI = bytes("jti");
+
+    static {
+        java.util.Arrays.fill(DECODE, (byte) -1);
+        for(int i = 0; i < ALPHABET.length; i++){
+            DECODE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private TokenCodec(){}
+
+    /**
+     * Monta o token completo (header.payload.assinatura).
+     */
+    static String encode(JwtUtil.TokenPayload p, HmacSigner signer){
+        // Pior caso: cada caractere de controle vira um escape de 6 bytes
+        int maxClaims = 80 + 6 * (length(p.id) + length(p.username) + length(p.role) + length(p.jti)) + 40;
+        byte[] claims = new byte[maxClaims];
+        int claimsLen = writeClaims(p, claims);
+
+        byte[] out = new byte[HEADER_BYTES.length + 1 + encodedLength(claimsLen) + 1 + SIGNATURE_CHARS];
+        System.arraycopy(HEADER_BYTES, 0, out, 0, HEADER_BYTES.length);
+        int pos = HEADER_BYTES.length;
+        out[pos++] = '.';
+        pos = encodeBase64(claims, 0, claimsLen, out, pos);
+        int signingLen = pos;
+        out[pos++] = '.';
+        pos = encodeBase64(signer.sign(out, 0, signingLen), 0, HmacSigner.SIGNATURE_LENGTH, out, pos);
+        return new String(out, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    static int decodedLength(int chars){
+        return (chars / 4) * 3 + (chars % 4 == 0 ? 0 : Math.max(0, chars % 4 - 1));
+    }
+
+    static int encodedLength(int n){
+        return (n / 3) * 4 + (n % 3 == 0 ? 0 : n % 3 + 1);
+    }
+
+    static int encodeBase64(byte[] src, int off, int len, byte[] dst, int dp){
+        int end = off + len;
+        int i = off;
+        while(end - i >= 3){
+            int v = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[dp++] = ALPHABET[v >>> 18];
+            dst[dp++] = ALPHABET[(v >>> 12) & 0x3f];
+            dst[dp++] = ALPHABET[(v >>> 6) & 0x3f];
+            dst[dp++] = ALPHABET[v & 0x3f];
+            i += 3;
+        }
+        int rem = end - i;
+        if(rem == 1){
+            int v = (src[i] & 0xff) << 16;
+            dst[dp++] = ALPHABET[v >>> 18];
+            dst[dp++] = ALPHABET[(v >>> 12) & 0x3f];
+        } else if(rem == 2){
+            int v = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[dp++] = ALPHABET[v >>> 18];
+            dst[dp++] = ALPHABET[(v >>> 12) & 0x3f];
+            dst[dp++] = ALPHABET[(v >>> 6) & 0x3f];
+        }
+        return dp;
+    }
+
+    /**
+     * Decodifica Base64URL (sem padding) de {@code src[off, off+len)} em
+     * {@code dst} a partir da posição 0. Retorna o número de bytes escritos
+     * ou -1 se a entrada for inválida ou não couber no destino.
+     */
+    static int decodeBase64(String src, int off, int len, byte[] dst){
+        if(len % 4 == 1) return -1;
+        if(decodedLength(len) > dst.length) return -1;
+        int end = off + len;
+        int i = off;
+        int dp = 0;
+        while(end - i >= 4){
+            int v = sextet(src.charAt(i)) << 18 | sextet(src.charAt(i + 1)) << 12
+                | sextet(src.charAt(i + 2)) << 6 | sextet(src.charAt(i + 3));
+            if(v < 0) return -1;
+            dst[dp++] = (byte) (v >>> 16);
+            dst[dp++] = (byte) (v >>> 8);
+            dst[dp++] = (byte) v;
+            i += 4;
+        }
+        int rem = end - i;
+        if(rem == 2){
+            int v = sextet(src.charAt(i)) << 18 | sextet(src.charAt(i + 1)) << 12;
+            if(v < 0) return -1;
+            dst[dp++] = (byte) (v >>> 16);
+        } else if(rem == 3){
+            int v = sextet(src.charAt(i)) << 18 | sextet(src.charAt(i + 1)) << 12 | sextet(src.charAt(i + 2)) << 6;
+            if(v < 0) return -1;
+            dst[dp++] = (byte) (v >>> 16);
+            dst[dp++] = (byte) (v >>> 8);
+        }
+        return dp;
+    }
+
+    // Caracteres inválidos retornam um valor negativo que contamina o acumulador
+    private static int sextet(char c){
+        return c < 128 ? DECODE[c] : -1;
+    }
+
+    // ---------------------------------------------------------------- JSON
+
+    static int writeClaims(JwtUtil.TokenPayload p, byte[] out){
+        int pos = 0;
+        pos = ascii(out, pos, "{\"id\":");
+        pos = string(out, pos, p.id);
+        pos = ascii(out, pos, ",\"username\":");
+        pos = string(out, pos, p.username);
+        pos = ascii(out, pos, ",\"role\":");
+        pos = string(out, pos, p.role);
+        pos = ascii(out, pos, ",\"iat\":");
+        pos = number(out, pos, p.iat);
+        pos = ascii(out, pos, ",\"exp\":");
+        pos = number(out, pos, p.exp);
+        if(p.jti != null){
+            pos = ascii(out, pos, ",\"jti\":");
+            pos = string(out, pos, p.jti);
+        }
+        out[pos++] = '}';
+        return pos;
+    }
+
+    private static int ascii(byte[] out, int pos, String s){
+        for(int i = 0; i < s.length(); i++) out[pos++] = (byte) s.charAt(i);
+        return pos;
+    }
+
+    private static int number(byte[] out, int pos, long v){
+        if(v == 0){
+            out[pos++] = '0';
+            return pos;
+        }
+        if(v < 0){
+            out[pos++] = '-';
+            if(v == Long.MIN_VALUE) return ascii(out, pos, "9223372036854775808");
+            v = -v;
+        }
+        int start = pos;
+        while(v > 0){
+            out[pos++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        }
+        for(int i = start, j = pos - 1; i < j; i++, j--){
+            byte t = out[i]; out[i] = out[j]; out[j] = t;
+        }
+        return pos;
+    }
+
+    private static int string(byte[] out, int pos, String s){
+        if(s == null) return ascii(out, pos, "null");
+        out[pos++] = '"';
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            if(c == '"' || c == '\\'){
+                out[pos++] = '\\';
+                out[pos++] = (byte) c;
+            } else if(c < 0x20){
+                pos = ascii(out, pos, "\\u00");
+                out[pos++] = (byte) Character.forDigit(c >> 4, 16);
+                out[pos++] = (byte) Character.forDigit(c & 0xf, 16);
+            } else if(c < 0x80){
+                out[pos++] = (byte) c;
+            } else if(c < 0x800){
+                out[pos++] = (byte) (0xc0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if(Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))){
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out[pos++] = (byte) (0xf0 | (cp >> 18));
+                out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                out[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else if(Character.isSurrogate(c)){
+                out[pos++] = '?';
+            } else {
+                out[pos++] = (byte) (0xe0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        out[pos++] = '"';
+        return pos;
+    }
+
+    /**
+     * Lê as claims de um JSON em UTF-8. Campos desconhecidos são ignorados.
+     * Retorna null se o JSON estiver malformado.
+     */
+    static JwtUtil.TokenPayload readClaims(byte[] src, int off, int len){
+        try{
+            return new ClaimsReader(src, off, off + len).read();
+        } catch(IllegalArgumentException | ArrayIndexOutOfBoundsException | ArithmeticException e){
+            return null;
+        }
+    }
+
+    private static final class ClaimsReader {
+        private final byte[] b;
+        private final int end;
+        private int pos;
+
+        ClaimsReader(byte[] b, int off, int end){
+            this.b = b;
+            this.pos = off;
+            this.end = end;
+        }
+
+        JwtUtil.TokenPayload read(){
+            JwtUtil.TokenPayload p = new JwtUtil.TokenPayload();
+            ws();
+            expect('{');
+            ws();
+            if(peek() == '}'){
+                pos++;
+                return p;
+            }
+            while(true){
+                ws();
+                expect('"');
+                int keyStart = pos;
+                while(peek() != '"'){
+                    if(b[pos] == '\\') pos++;
+                    pos++;
+                }
+                int keyEnd = pos++;
+                ws();
+                expect(':');
+                ws();
+                if(is(keyStart, keyEnd, K_ID)) p.id = stringValue();
+                else if(is(keyStart, keyEnd, K_USERNAME)) p.username = stringValue();
+                else if(is(keyStart, keyEnd, K_ROLE)) p.role = stringValue();
+                else if(is(keyStart, keyEnd, K_IAT)) p.iat = longValue();
+                else if(is(keyStart, keyEnd, K_EXP)) p.exp = longValue();
+                else if(is(keyStart, keyEnd, K_JTI)) p.jti = stringValue();
+                else skipValue();
+                ws();
+                byte c = next();
+                if(c == '}') break;
+                if(c != ',') throw new IllegalArgumentException();
+            }
+            ws();
+            if(pos != end) throw new IllegalArgumentException();
+            return p;
+        }
+
+        private boolean is(int start, int stop, byte[] key){
+            if(stop - start != key.length) return false;
+            for(int i = 0; i < key.length; i++){
+                if(b[start + i] != key[i]) return false;
+            }
+            return true;
+        }
+
+        private String stringValue(){
+            if(peek() == 'n'){
+                literal("null");
+                return null;
+            }
+            expect('"');
+            int start = pos;
+            boolean ascii = true;
+            while(true){
+                byte c = peek();
+                if(c == '"') break;
+                if(c == '\\') return escapedString(start);
+                if(c < 0) ascii = false;
+                pos++;
+            }
+            String s = new String(b, start, pos - start, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+            pos++;
+            return s;
+        }
+
+        private String escapedString(int start){
+            StringBuilder sb = new StringBuilder();
+            int run = start;
+            while(true){
+                if(pos >= end) throw new IllegalArgumentException();
+                byte c = b[pos];
+                if(c == '"'){
+                    sb.append(new String(b, run, pos - run, StandardCharsets.UTF_8));
+                    pos++;
+                    return sb.toString();
+                }
+                if(c != '\\'){
+                    pos++;
+                    continue;
+                }
+                sb.append(new String(b, run, pos - run, StandardCharsets.UTF_8));
+                pos++;
+                byte e = next();
+                switch(e){
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if(pos + 4 > end) throw new IllegalArgumentException();
+                        int cp = 0;
+                        for(int i = 0; i < 4; i++){
+                            int d = Character.digit(b[pos++], 16);
+                            if(d < 0) throw new IllegalArgumentException();
+                            cp = (cp << 4) | d;
+                        }
+                        sb.append((char) cp);
+                        break;
+                    default:
+                        throw new IllegalArgumentException();
+                }
+                run = pos;
+            }
+        }
+
+        private long longValue(){
+            boolean neg = false;
+            if(peek() == '-'){
+                neg = true;
+                pos++;
+            }
+            int start = pos;
+            long v = 0;
+            while(pos < end && b[pos] >= '0' && b[pos] <= '9'){
+                v = Math.addExact(Math.multiplyExact(v, 10), b[pos++] - '0');
+            }
+            if(pos == start) throw new IllegalArgumentException();
+            return neg ? -v : v;
+        }
+
+        private void skipValue(){
+            byte c = peek();
+            if(c == '"'){
+                pos++;
+                while(next() != '"'){
+                    if(b[pos - 1] == '\\') pos++;
+                }
+                return;
+            }
+            if(c == '{' || c == '['){
+                int depth = 0;
+                do{
+                    byte x = next();
+                    if(x == '"'){
+                        while(next() != '"'){
+                            if(b[pos - 1] == '\\') pos++;
+                        }
+                    } else if(x == '{' || x == '['){
+                        depth++;
+                    } else if(x == '}' || x == ']'){
+                        depth--;
+                    }
+                } while(depth > 0);
+                return;
+            }
+            int start = pos;
+            while(pos < end && b[pos] != ',' && b[pos] != '}' && b[pos] > ' ') pos++;
+            if(pos == start) throw new IllegalArgumentException();
+        }
+
+        private void literal(String s){
+            for(int i = 0; i < s.length(); i++){
+                if(next() != s.charAt(i)) throw new IllegalArgumentException();
+            }
+        }
+
+        private void ws(){
+            while(pos < end && (b[pos] == ' ' || b[pos] == '\t' || b[pos] == '\n' || b[pos] == '\r')) pos++;
+        }
+
+        private byte peek(){
+            if(pos >= end) throw new IllegalArgumentException();
+            return b[pos];
+        }
+
+        private byte next(){
+            if(pos >= end) throw new IllegalArgumentException();
+            return b[pos++];
+        }
+
+        private void expect(char c){
+            if(next() != c) throw new IllegalArgumentException();
+        }
+    }
+
+    private static int length(String s){
+        return s == null ? 4 : s.length();
+    }
+
+    private static byte[] bytes(String s){
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
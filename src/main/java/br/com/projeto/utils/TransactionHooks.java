@@ -0,0 +1,46 @@
+package br.com.projeto.utils;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Executa ações depois que a transação corrente termina. Sem transação
+ * ativa, as ações de commit rodam imediatamente.
+ */
+@ApplicationScoped
+public class TransactionHooks {
+
+    @Inject
+    TransactionSynchronizationRegistry txRegistry;
+
+    public void afterCommit(Runnable action){
+        afterCompletion(action, null);
+    }
+
+    public void afterRollback(Runnable action){
+        afterCompletion(null, action);
+    }
+
+    public void afterCompletion(Runnable onCommit, Runnable onRollback){
+        if(txRegistry.getTransactionStatus() != Status.STATUS_ACTIVE){
+            if(onCommit != null) onCommit.run();
+            return;
+        }
+        txRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+                if(status == Status.STATUS_COMMITTED){
+                    if(onCommit != null) onCommit.run();
+                } else if(onRollback != null){
+                    onRollback.run();
+                }
+            }
+        });
+    }
+}
@@ -6,9 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 @QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -193,4 +199,163 @@ public class AuthResourceTest {
             .then()
                 .statusCode(403);
     }
+
+    @Test
+    @Order(13)
+    public void testLogoutRevokesToken() {
+        String loginBody = "{\"username\":\"user1\",\"password\":\"pass123\"}";
+        String token = given()
+            .contentType(ContentType.JSON)
+            .body(loginBody)
+            .when().post("/api/auth/login")
+            .then()
+                .statusCode(200)
+                .extract().path("token");
+
+        given()
+            .header("Authorization", "Bearer " + token)
+            .when().post("/api/auth/logout")
+            .then()
+                .statusCode(204);
+
+        // Token revogado não deve mais ser aceito
+        given()
+            .header("Authorization", "Bearer " + token)
+            .when().post("/api/auth/logout")
+            .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(14)
+    public void testGetUsersPaginatedAndStreamed() {
+        String loginBody = "{\"username\":\"admin\",\"password\":\"admin123\"}";
+        String token = given()
+            .contentType(ContentType.JSON)
+            .body(loginBody)
+            .when().post("/api/auth/login")
+            .then()
+                .statusCode(200)
+                .extract().path("token");
+
+        // Primeira página com um item e cursor para a próxima
+        String cursor = given()
+            .header("Authorization", "Bearer " + token)
+            .queryParam("limit", 1)
+            .when().get("/api/auth/users")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].username", is("admin"))
+                .header("X-Next-Cursor", notNullValue())
+                .header("Link", containsString("rel=\"next\""))
+                .extract().header("X-Next-Cursor");
+
+        given()
+            .header("Authorization", "Bearer " + token)
+            .queryParam("limit", 1)
+            .queryParam("after", cursor)
+            .when().get("/api/auth/users")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].username", is("user1"))
+                .header("X-Next-Cursor", nullValue())
+                .header("Link", nullValue());
+
+        // Cursor que não veio do servidor
+        given()
+            .header("Authorization", "Bearer " + token)
+            .queryParam("after", "%%%")
+            .when().get("/api/auth/users")
+            .then()
+                .statusCode(400);
+
+        // Filtro por prefixo
+        given()
+            .header("Authorization", "Bearer " + token)
+            .queryParam("prefix", "us")
+            .when().get("/api/auth/users")
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].username", is("user1"));
+
+        // Exportação NDJSON: uma linha por usuário
+        String ndjson = given()
+            .header("Authorization", "Bearer " + token)
+            .when().get("/api/auth/users/stream")
+            .then()
+                .statusCode(200)
+                .extract().asString();
+        org.junit.jupiter.api.Assertions.assertEquals(2, ndjson.trim().split("\n").length);
+    }
+
+    @Test
+    @Order(15)
+    public void testProtectedRoutesRequireTokenAndPublicRoutesStayOpen() {
+        // Endpoint protegido sem token: 401 (não 403 do filtro de papéis)
+        given()
+            .when().get("/api/employees")
+            .then()
+                .statusCode(401);
+
+        given()
+            .when().get("/api/employees/by-user/550e8400-e29b-41d4-a716-446655440000")
+            .then()
+                .statusCode(401);
+
+        // Path da API sem endpoint próprio nunca é servido sem token
+        given()
+            .when().get("/api/nao/existe")
+            .then()
+                .statusCode(not(200));
+
+        // Endpoints @PublicEndpoint continuam abertos
+        given()
+            .when().get("/api/auth/has-admin")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(16)
+    public void testConcurrentLogoutIsIdempotent() throws Exception {
+        String loginBody = "{\"username\":\"user1\",\"password\":\"pass123\"}";
+        String token = given()
+            .contentType(ContentType.JSON)
+            .body(loginBody)
+            .when().post("/api/auth/login")
+            .then()
+                .statusCode(200)
+                .extract().path("token");
+
+        // Logouts simultâneos do mesmo token: 204 ou, se a revogação já
+        // valeu, 401 (nunca 500 pela chave duplicada)
+        int clients = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Callable<Integer>> logouts = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                logouts.add(() -> given()
+                    .header("Authorization", "Bearer " + token)
+                    .when().post("/api/auth/logout")
+                    .then().extract().statusCode());
+            }
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> f : pool.invokeAll(logouts)) {
+                statuses.add(f.get());
+            }
+            assertThat(statuses, everyItem(anyOf(is(204), is(401))));
+            assertThat(statuses, hasItem(204));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        given()
+            .header("Authorization", "Bearer " + token)
+            .when().post("/api/auth/logout")
+            .then()
+                .statusCode(401);
+    }
 }
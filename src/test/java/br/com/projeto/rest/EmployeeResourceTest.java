@@ -1,23 +1,58 @@
 package br.com.projeto.rest;
 
+import br.com.projeto.dao.DocumentBlobDAO;
+import br.com.projeto.dao.EmployeeDocumentDAO;
+import br.com.projeto.models.DocumentBlob;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
 import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.imageio.ImageIO;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 @QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class EmployeeResourceTest {
 
+    @Inject
+    DocumentBlobDAO blobDAO;
+
+    @Inject
+    EmployeeDocumentDAO documentDAO;
+
     private static String adminToken;
     private static String adminUserId;
     private static String managerToken;
@@ -665,4 +700,675 @@ public class EmployeeResourceTest {
             .then()
                 .statusCode(403);
     }
+
+    @Test
+    @Order(28)
+    public void testDownloadConditionalAndRange() {
+        String url = "/api/employees/" + employeeId + "/documents/RG/download";
+        // Conteúdo gravado na ordem 8: "Updated PDF content" (19 bytes)
+        String etag = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get(url)
+            .then()
+                .statusCode(200)
+                .header("Accept-Ranges", "bytes")
+                .header("Content-Length", "19")
+                .header("Last-Modified", notNullValue())
+                .extract().header("ETag");
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("If-None-Match", etag)
+            .when().get(url)
+            .then()
+                .statusCode(304);
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=8-10")
+            .when().get(url)
+            .then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 8-10/19")
+                .body(is("PDF"));
+
+        // If-Range com ETag diferente devolve o conteúdo inteiro
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=0-3")
+            .header("If-Range", "\"outro\"")
+            .when().get(url)
+            .then()
+                .statusCode(200);
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=0-0,-7")
+            .when().get(url)
+            .then()
+                .statusCode(206)
+                .header("Content-Type", containsString("multipart/byteranges"))
+                .body(containsString("bytes 12-18/19"));
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=100-")
+            .when().get(url)
+            .then()
+                .statusCode(416)
+                .header("Content-Range", "bytes */19");
+
+        // Sobrepostos e adjacentes viram um único intervalo
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=0-4,3-8,9-10")
+            .when().get(url)
+            .then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 0-10/19")
+                .body(is("Updated PDF"));
+
+        // Intervalos que somam mais que o arquivo, ou em excesso: conteúdo inteiro
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=0-,0-,0-")
+            .when().get(url)
+            .then()
+                .statusCode(200)
+                .header("Content-Length", "19");
+
+        StringBuilder many = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= 16; i++) many.append(",").append(i).append("-").append(i);
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", many.toString())
+            .when().get(url)
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(29)
+    public void testIdenticalUploadsAreDeduplicated() throws Exception {
+        File same = tempFile("same.pdf", ("Formulario padrao " + System.nanoTime()).getBytes());
+
+        long hitsBefore = ((Number) given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/metrics")
+            .then()
+                .statusCode(200)
+                .extract().path("documentStorage.dedupHits")).longValue();
+
+        for (String name : new String[]{"FORM-A", "FORM-B"}) {
+            uploadDocument(adminToken, name, same, "application/pdf").statusCode(200);
+        }
+
+        long hitsAfter = ((Number) given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/metrics")
+            .then()
+                .statusCode(200)
+                .extract().path("documentStorage.dedupHits")).longValue();
+        assertThat(hitsAfter, is(hitsBefore + 1));
+
+        // Os dois documentos leem o mesmo conteúdo compartilhado
+        String etagA = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/" + employeeId + "/documents/FORM-A/download")
+            .then().statusCode(200).extract().header("ETag");
+        String etagB = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/" + employeeId + "/documents/FORM-B/download")
+            .then().statusCode(200).extract().header("ETag");
+        assertThat(etagB, is(etagA));
+    }
+
+    @Test
+    @Order(30)
+    public void testCompressibleDocumentIsStoredCompressed() throws Exception {
+        StringBuilder sb = new StringBuilder("id,nome,setor\n");
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i).append(",Funcionario ").append(i % 20).append(",Financeiro\n");
+        }
+        String expected = sb.toString() + System.nanoTime();
+        File csv = tempFile("export.csv", expected.getBytes());
+        uploadDocument(adminToken, "EXPORT", csv, "text/csv").statusCode(200);
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/by-user/" + employeeUserId)
+            .then()
+                .statusCode(200)
+                .body("documents.find { it.name == 'EXPORT' }.fileSize", is((int) csv.length()))
+                .body("documents.find { it.name == 'EXPORT' }.storedSize", lessThan((int) csv.length()));
+
+        // Download devolve o conteúdo original, descomprimido em streaming
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/" + employeeId + "/documents/EXPORT/download")
+            .then()
+                .statusCode(200)
+                .header("Content-Length", String.valueOf(csv.length()))
+                .body(is(expected));
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=-5")
+            .when().get("/api/employees/" + employeeId + "/documents/EXPORT/download")
+            .then()
+                .statusCode(206)
+                .body(is(expected.substring(expected.length() - 5)));
+
+        // Vários intervalos de um conteúdo comprimido, numa passada só
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("Range", "bytes=-5,0-13")
+            .when().get("/api/employees/" + employeeId + "/documents/EXPORT/download")
+            .then()
+                .statusCode(206)
+                .header("Content-Type", containsString("multipart/byteranges"))
+                .body(containsString("id,nome,setor"))
+                .body(containsString(expected.substring(expected.length() - 5)));
+    }
+
+    @Test
+    @Order(31)
+    public void testResumableUpload() {
+        String base = "/api/employees/" + employeeId + "/uploads";
+        String uploadId = given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .contentType(ContentType.JSON)
+            .body("{\"documentName\":\"CNH\",\"fileName\":\"cnh.txt\",\"contentType\":\"text/plain\",\"size\":10}")
+            .when().post(base)
+            .then()
+                .statusCode(201)
+                .header("Upload-Offset", "0")
+                .extract().path("id");
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .header("Upload-Offset", 0)
+            .contentType("application/octet-stream")
+            .body("hello".getBytes())
+            .when().put(base + "/" + uploadId)
+            .then()
+                .statusCode(200)
+                .header("Upload-Offset", "5");
+
+        // Pedaço com offset errado é recusado e informa o offset confirmado
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .header("Upload-Offset", 2)
+            .contentType("application/octet-stream")
+            .body("xxx".getBytes())
+            .when().put(base + "/" + uploadId)
+            .then()
+                .statusCode(409)
+                .header("Upload-Offset", "5");
+
+        // Sessão de outro usuário não é visível
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .when().get(base + "/" + uploadId)
+            .then()
+                .statusCode(404);
+
+        // Ainda incompleto
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().post(base + "/" + uploadId + "/complete")
+            .then()
+                .statusCode(409);
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().get(base + "/" + uploadId)
+            .then()
+                .statusCode(200)
+                .body("offset", is(5));
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .header("Upload-Offset", 5)
+            .contentType("application/octet-stream")
+            .body("world".getBytes())
+            .when().put(base + "/" + uploadId)
+            .then()
+                .statusCode(200)
+                .header("Upload-Offset", "10");
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().post(base + "/" + uploadId + "/complete")
+            .then()
+                .statusCode(200)
+                .body("name", is("CNH"))
+                .body("fileSize", is(10));
+
+        String content = given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().get("/api/employees/" + employeeId + "/documents/CNH/download")
+            .then()
+                .statusCode(200)
+                .extract().asString();
+        assertThat(content, is("helloworld"));
+
+        // Sessão concluída deixa de existir
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().get(base + "/" + uploadId)
+            .then()
+                .statusCode(404);
+
+        // Tamanho total é obrigatório e limitado por app.upload.max-size
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .contentType(ContentType.JSON)
+            .body("{\"documentName\":\"RG\",\"fileName\":\"rg.txt\"}")
+            .when().post(base)
+            .then()
+                .statusCode(400);
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .contentType(ContentType.JSON)
+            .body("{\"documentName\":\"RG\",\"fileName\":\"rg.txt\",\"size\":1000000000000}")
+            .when().post(base)
+            .then()
+                .statusCode(413);
+
+        // Limite de sessões abertas por usuário (app.upload.max-open-sessions=5)
+        List<String> open = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            open.add(given()
+                .header("Authorization", "Bearer " + employeeToken)
+                .contentType(ContentType.JSON)
+                .body("{\"documentName\":\"RG\",\"fileName\":\"rg.txt\",\"size\":10}")
+                .when().post(base)
+                .then()
+                    .statusCode(201)
+                    .extract().path("id"));
+        }
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .contentType(ContentType.JSON)
+            .body("{\"documentName\":\"RG\",\"fileName\":\"rg.txt\",\"size\":10}")
+            .when().post(base)
+            .then()
+                .statusCode(429);
+
+        for(String id : open) {
+            given()
+                .header("Authorization", "Bearer " + employeeToken)
+                .when().delete(base + "/" + id)
+                .then()
+                    .statusCode(204);
+        }
+    }
+
+    @Test
+    @Order(32)
+    public void testImagePreviewIsGeneratedInBackground() throws Exception {
+        BufferedImage img = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        img.setRGB(0, 0, (int) (System.nanoTime() & 0xffffff)); // conteúdo único
+        java.io.ByteArrayOutputStream png = new java.io.ByteArrayOutputStream();
+        ImageIO.write(img, "png", png);
+        uploadDocument(adminToken, "FOTO", tempFile("foto.png", png.toByteArray()), "image/png").statusCode(200);
+
+        // A miniatura é gerada depois do upload; aguardar o flag
+        String version = awaitValue(() -> given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/by-user/" + employeeUserId)
+            .then()
+                .statusCode(200)
+                .extract().<String>path("documents.find { it.name == 'FOTO' }.previewVersion"));
+        assertThat(version, notNullValue());
+
+        String url = "/api/employees/" + employeeId + "/documents/FOTO/preview";
+        var resp = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .queryParam("v", version)
+            .when().get(url)
+            .then()
+                .statusCode(200)
+                .header("Content-Type", "image/jpeg")
+                .header("Cache-Control", containsString("immutable"))
+                .extract();
+        BufferedImage thumb = ImageIO.read(new ByteArrayInputStream(resp.asByteArray()));
+        assertThat(thumb.getWidth(), is(256));
+        assertThat(thumb.getHeight(), lessThanOrEqualTo(256));
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .header("If-None-Match", resp.header("ETag"))
+            .when().get(url)
+            .then()
+                .statusCode(304);
+
+        // Documento sem miniatura (PDF)
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/" + employeeId + "/documents/RG/preview")
+            .then()
+                .statusCode(404);
+
+        // Conteúdo que o ImageIO não lê fica marcado no blob e sai da varredura de pendentes
+        byte[] garbage = ("não é PNG " + System.nanoTime()).getBytes("UTF-8");
+        String sha = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(garbage));
+        uploadDocument(adminToken, "FOTO-RUIM", tempFile("foto-ruim.png", garbage), "image/png").statusCode(200);
+
+        DocumentBlob failed = awaitValue(() -> QuarkusTransaction.requiringNew().call(() ->
+            blobDAO.findBySha256(sha).filter(b -> b.previewFailed).orElse(null)));
+        assertThat(failed, notNullValue());
+        List<Object[]> pending = QuarkusTransaction.requiringNew().call(() ->
+            documentDAO.listMissingPreview(Set.of("image/png"), 10_000));
+        assertThat(pending.stream().map(r -> (String) r[0]).toList(), not(hasItem(sha)));
+    }
+
+    @Test
+    @Order(33)
+    public void testZipExport() throws Exception {
+        byte[] zip = given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().get("/api/employees/" + employeeId + "/documents.zip")
+            .then()
+                .statusCode(200)
+                .header("Content-Type", containsString("application/zip"))
+                .extract().asByteArray();
+
+        java.util.Map<String, byte[]> entries = new java.util.HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry e;
+            while ((e = in.getNextEntry()) != null) {
+                entries.put(e.getName(), in.readAllBytes());
+            }
+        }
+        assertThat(entries.keySet(), hasItem(startsWith("RG")));
+        assertThat(new String(entries.get("CNH - cnh.txt")), is("helloworld"));
+
+        // Gestor não exporta a equipe de outro gestor
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .when().get("/api/employees/by-manager/" + adminUserId + "/documents.zip")
+            .then()
+                .statusCode(403);
+
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .when().get("/api/employees/by-manager/" + managerUserId + "/documents.zip")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(34)
+    public void testDocumentNameIsUniquePerEmployee() throws Exception {
+        // RG já existe: adicionar de novo é conflito, substituir é pelo /update
+        uploadDocument(adminToken, "RG", testFile, "application/pdf").statusCode(409);
+
+        // Aprovar um documento não altera os demais
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"FORM-A\",\"approved\":true}")
+            .when().post("/api/employees/" + employeeId + "/documents/approve")
+            .then()
+                .statusCode(200);
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/by-user/" + employeeUserId)
+            .then()
+                .statusCode(200)
+                .body("documents.find { it.name == 'FORM-A' }.approved", is(true))
+                .body("documents.find { it.name == 'FORM-B' }.approved", nullValue());
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"INEXISTENTE\",\"approved\":true}")
+            .when().post("/api/employees/" + employeeId + "/documents/approve")
+            .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(35)
+    public void testCreateWithRepeatedFileNamesIsRejected() throws Exception {
+        File a = tempFile("contrato.pdf", ("Contrato " + System.nanoTime()).getBytes());
+        String newUserId = UUID.randomUUID().toString();
+
+        // O lote inteiro é rejeitado: nem o funcionário é criado
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .multiPart("userId", newUserId)
+            .multiPart("data", "{\"name\":\"Lote\"}")
+            .multiPart("files", a, "application/pdf")
+            .multiPart("files", a, "application/pdf")
+            .when().post("/api/employees")
+            .then()
+                .statusCode(409);
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees/by-user/" + newUserId)
+            .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(36)
+    public void testPendingDocumentsQueue() {
+        // Percorre a fila inteira de uma em uma página: sem repetições nem aprovados
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        String after = null;
+        do {
+            var req = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("limit", 1);
+            if (after != null) req.queryParam("after", after);
+            var page = req.when().get("/api/employees/documents/pending")
+                .then()
+                    .statusCode(200)
+                    .body("items.size()", lessThan(2))
+                    .extract().jsonPath();
+            for (java.util.Map<String, Object> item : page.<java.util.Map<String, Object>>getList("items")) {
+                assertThat("repetido: " + item, seen.add(item.get("employeeId") + "/" + item.get("name")), is(true));
+            }
+            after = page.getString("next");
+        } while (after != null);
+
+        assertThat(seen, hasItem(employeeId + "/FORM-B"));
+        assertThat(seen, not(hasItem(employeeId + "/FORM-A")));
+
+        // Gestor vê a própria equipe
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .when().get("/api/employees/documents/pending")
+            .then()
+                .statusCode(200)
+                .body("items.findAll { it.employeeId == '" + employeeId + "' }.name", hasItem("FORM-B"));
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .queryParam("after", "nao-e-um-cursor")
+            .when().get("/api/employees/documents/pending")
+            .then()
+                .statusCode(400);
+
+        given()
+            .header("Authorization", "Bearer " + employeeToken)
+            .when().get("/api/employees/documents/pending")
+            .then()
+                .statusCode(403);
+    }
+
+    @Test
+    @Order(37)
+    public void testBulkApproval() throws Exception {
+        // Funcionário fora da equipe do gestor, com um documento pendente
+        File f = tempFile("ctps.pdf", ("CTPS " + System.nanoTime()).getBytes());
+        String otherId = given()
+            .header("Authorization", "Bearer " + adminToken)
+            .multiPart("userId", UUID.randomUUID().toString())
+            .multiPart("data", "{\"name\":\"Outra equipe\"}")
+            .multiPart("files", f, "application/pdf")
+            .when().post("/api/employees")
+            .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        String managerBody = "{\"items\":["
+            + "{\"employeeId\":\"" + employeeId + "\",\"name\":\"FORM-B\",\"approved\":true},"
+            + "{\"employeeId\":\"" + otherId + "\",\"name\":\"ctps.pdf\",\"approved\":true}]}";
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .contentType(ContentType.JSON)
+            .body(managerBody)
+            .when().post("/api/employees/documents/approve")
+            .then()
+                .statusCode(200)
+                .body("updated", is(1))
+                .body("results[0].outcome", is("UPDATED"))
+                .body("results[1].outcome", is("FORBIDDEN"));
+
+        String adminBody = "{\"items\":["
+            + "{\"employeeId\":\"" + otherId + "\",\"name\":\"ctps.pdf\",\"approved\":false},"
+            + "{\"employeeId\":\"" + otherId + "\",\"name\":\"ctps.pdf\",\"approved\":true},"
+            + "{\"employeeId\":\"" + otherId + "\",\"name\":\"INEXISTENTE\",\"approved\":true},"
+            + "{\"employeeId\":\"nao-e-uuid\",\"name\":\"RG\",\"approved\":true}]}";
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(ContentType.JSON)
+            .body(adminBody)
+            .when().post("/api/employees/documents/approve")
+            .then()
+                .statusCode(200)
+                .body("updated", is(1))
+                .body("results.outcome", contains("UPDATED", "DUPLICATE", "NOT_FOUND", "INVALID"));
+
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .when().get("/api/employees/by-user/" + employeeUserId)
+            .then()
+                .statusCode(200)
+                .body("documents.find { it.name == 'FORM-B' }.approved", is(true));
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .contentType(ContentType.JSON)
+            .body("{\"items\":[]}")
+            .when().post("/api/employees/documents/approve")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(38)
+    public void testEmployeeListingIsPaginated() {
+        // Percorre todas as páginas pelo cursor: cada funcionário aparece uma vez
+        java.util.Set<String> ids = new java.util.HashSet<>();
+        String after = null;
+        int total = -1;
+        do {
+            var req = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("limit", 2)
+                .queryParam("count", true);
+            if (after != null) req.queryParam("after", after);
+            var resp = req.when().get("/api/employees")
+                .then()
+                    .statusCode(200)
+                    .body("size()", lessThan(3))
+                    .extract();
+            total = Integer.parseInt(resp.header("X-Total-Count"));
+            for (String id : resp.jsonPath().<String>getList("id")) {
+                assertThat("repetido: " + id, ids.add(id), is(true));
+            }
+            after = resp.header("X-Next-Cursor");
+            if (after != null) assertThat(resp.header("Link"), containsString("rel=\"next\""));
+        } while (after != null);
+        assertThat(total, greaterThan(2));
+        assertThat(ids.size(), is(total));
+        assertThat(ids, hasItem(employeeId));
+
+        // Sem limit vale a página padrão de 50; o cursor só aparece se houver mais
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .when().get("/api/employees")
+            .then()
+                .statusCode(200)
+                .body("size()", is(Math.min(total, 50)))
+                .header("X-Next-Cursor", total > 50 ? notNullValue() : nullValue());
+
+        given()
+            .header("Authorization", "Bearer " + managerToken)
+            .queryParam("limit", 1)
+            .when().get("/api/employees/by-manager/" + managerUserId)
+            .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .header("X-Next-Cursor", notNullValue());
+
+        given()
+            .header("Authorization", "Bearer " + adminToken)
+            .queryParam("after", "invalido")
+            .when().get("/api/employees")
+            .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(39)
+    public void testConcurrentDuplicateDocumentGetsConflict() throws Exception {
+        // Envios simultâneos do mesmo nome: um cria, os demais recebem 409 (nunca 500)
+        int clients = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Callable<Integer>> uploads = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                uploads.add(() -> uploadDocument(managerToken, "CONCORRENTE", testFile, "application/pdf")
+                    .extract().statusCode());
+            }
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> f : pool.invokeAll(uploads)) {
+                statuses.add(f.get());
+            }
+            assertThat(statuses, everyItem(anyOf(is(200), is(409))));
+            assertThat(statuses.stream().filter(st -> st == 200).count(), is(1L));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Arquivo temporário com o nome exato informado (o nome vai no multipart), removido ao fim da JVM
+    private static File tempFile(String fileName, byte[] content) throws IOException {
+        File dir = Files.createTempDirectory("upload").toFile();
+        dir.deleteOnExit();
+        File f = new File(dir, fileName);
+        f.deleteOnExit();
+        Files.write(f.toPath(), content);
+        return f;
+    }
+
+    // Envia um documento para o funcionário da suíte; o chamador confere a resposta
+    private static ValidatableResponse uploadDocument(String token, String documentName, File file, String contentType) {
+        return given()
+            .header("Authorization", "Bearer " + token)
+            .multiPart("documentName", documentName)
+            .multiPart("file", file, contentType)
+            .when().post("/api/employees/" + employeeId + "/documents")
+            .then();
+    }
+
+    // Espera limitada por um resultado produzido em segundo plano (null = ainda não pronto)
+    private static <T> T awaitValue(Supplier<T> probe) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        T value = probe.get();
+        while (value == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            value = probe.get();
+        }
+        return value;
+    }
 }
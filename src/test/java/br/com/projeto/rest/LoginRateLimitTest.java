@@ -0,0 +1,68 @@
+package br.com.projeto.rest;
+
+import br.com.projeto.service.LoginRateLimiter;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Limites baixos para exercitar o 429 e o teto de buckets em memória.
+ */
+@QuarkusTest
+@TestProfile(LoginRateLimitTest.LowLimits.class)
+public class LoginRateLimitTest {
+
+    public static class LowLimits implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.ratelimit.username.capacity", "2",
+                "app.ratelimit.username.refill-per-minute", "1",
+                "app.ratelimit.max-buckets", "128");
+        }
+    }
+
+    @Inject
+    LoginRateLimiter rateLimiter;
+
+    @Test
+    public void testRepeatedLoginsForOneUsernameGet429() {
+        String body = "{\"username\":\"alvo\",\"password\":\"errada\"}";
+        for (int i = 0; i < 2; i++) {
+            given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when().post("/api/auth/login")
+                .then()
+                    .statusCode(401);
+        }
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(body)
+            .when().post("/api/auth/login")
+            .then()
+                .statusCode(429)
+                .header("Retry-After", notNullValue());
+    }
+
+    @Test
+    public void testBucketCountStaysBounded() {
+        // Uma chave nova por tentativa, como numa varredura de credenciais
+        for (int i = 0; i < 5000; i++) {
+            rateLimiter.tryAcquire("spray" + i, "10.0." + (i / 256) + "." + (i % 256));
+        }
+        assertThat(rateLimiter.size(), lessThanOrEqualTo(128));
+        assertThat(rateLimiter.evicted() > 0, is(true));
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.projeto.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Pool de hash com uma thread e fila de um item, e PBKDF2 caro: logins
+ * simultâneos (inclusive de usuários inexistentes) excedem o pool e
+ * recebem 503 em vez de esperar.
+ */
+@QuarkusTest
+@TestProfile(PasswordHashingSaturationTest.SaturatedPool.class)
+public class PasswordHashingSaturationTest {
+
+    public static class SaturatedPool implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "app.password.hashing-threads", "1",
+                "app.password.hashing-queue", "1",
+                "app.password.pbkdf2-iterations", "2000000");
+        }
+    }
+
+    @Test
+    public void testSaturatedPoolAnswers503() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Response>> calls = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                String body = "{\"username\":\"inexistente" + i + "\",\"password\":\"x\"}";
+                calls.add(pool.submit(() -> given()
+                    .contentType(ContentType.JSON)
+                    .body(body)
+                    .when().post("/api/auth/login")
+                    .then().extract().response()));
+            }
+            List<Integer> statuses = new ArrayList<>();
+            String retryAfter = null;
+            for (Future<Response> call : calls) {
+                Response r = call.get();
+                statuses.add(r.statusCode());
+                if (r.statusCode() == 503) retryAfter = r.header("Retry-After");
+            }
+
+            // Uma tarefa rodando e uma na fila: as demais são rejeitadas
+            assertThat(statuses, hasItem(503));
+            assertThat(statuses, hasItem(401));
+            assertThat(retryAfter, is("1"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
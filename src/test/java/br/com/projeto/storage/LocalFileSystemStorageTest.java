@@ -0,0 +1,67 @@
+package br.com.projeto.storage;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class LocalFileSystemStorageTest {
+
+    @Inject
+    DocumentStorage storage;
+
+    @Test
+    public void testWriteComputesSizeAndSha256() throws Exception {
+        Path source = Files.createTempFile("storage", ".txt");
+        byte[] content = "conteúdo de teste".getBytes("UTF-8");
+        Files.write(source, content);
+
+        StoredBlob blob = storage.write(source);
+
+        assertEquals(content.length, blob.size());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), blob.sha256());
+        try(var in = storage.open(blob.key())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertTrue(storage.delete(blob.key()));
+        Files.delete(source);
+    }
+
+    @Test
+    public void testHeapAllocationDoesNotGrowWithFileSize() throws Exception {
+        // Aquecimento para não contar carga de classes e inicializações
+        measureWrite(1024 * 1024);
+
+        long small = measureWrite(1024 * 1024);
+        long large = measureWrite(64L * 1024 * 1024);
+
+        // 64x mais conteúdo não pode custar proporcionalmente mais heap
+        assertTrue(large < small + 1024 * 1024,
+            "alocação cresceu com o tamanho do arquivo: 1MB=" + small + " bytes, 64MB=" + large + " bytes");
+    }
+
+    private long measureWrite(long size) throws Exception {
+        Path source = Files.createTempFile("storage", ".bin");
+        try(RandomAccessFile raf = new RandomAccessFile(source.toFile(), "rw")) {
+            raf.setLength(size);
+        }
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        StoredBlob blob = storage.write(source);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(size, blob.size());
+        storage.delete(blob.key());
+        Files.delete(source);
+        return allocated;
+    }
+}
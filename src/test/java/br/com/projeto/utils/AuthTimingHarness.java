@@ -0,0 +1,92 @@
+package br.com.projeto.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medição simples dos caminhos quentes de autenticação, para comparar antes
+ * e depois de mexer neles. Não roda no {@code mvn test} (o nome não segue o
+ * padrão do surefire); execute depois de {@code mvn test-compile}:
+ *
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) br.com.projeto.utils.AuthTimingHarness
+ * </pre>
+ *
+ * Os números são só indicativos (sem isolamento de JIT como no JMH); compare
+ * execuções na mesma máquina.
+ */
+public class AuthTimingHarness {
+
+    private static final byte[] KEY = "segredo-de-benchmark".getBytes(StandardCharsets.UTF_8);
+
+    // Evita que o JIT descarte o trabalho medido
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        hmac();
+        tokenCodec();
+        pbkdf2();
+    }
+
+    /** HmacSigner (pool de Mac) contra Mac.getInstance + init por chamada. */
+    static void hmac() throws Exception {
+        byte[] data = (TokenCodec.HEADER + ".eyJpZCI6IngiLCJ1c2VybmFtZSI6InkiLCJyb2xlIjoiYWRtaW4ifQ").getBytes(StandardCharsets.US_ASCII);
+        HmacSigner signer = new HmacSigner(KEY, 64);
+        measure("hmac: HmacSigner.sign", 200_000, () -> sink += signer.sign(data)[0]);
+        measure("hmac: Mac novo por chamada", 200_000, () -> {
+            Mac mac = Mac.getInstance(HmacSigner.ALGORITHM);
+            mac.init(new SecretKeySpec(KEY, HmacSigner.ALGORITHM));
+            sink += mac.doFinal(data)[0];
+        });
+    }
+
+    /** Codec próprio das claims contra java.util.Base64 + Jackson. */
+    static void tokenCodec() throws Exception {
+        HmacSigner signer = new HmacSigner(KEY, 64);
+        JwtUtil.TokenPayload p = new JwtUtil.TokenPayload(UUID.randomUUID().toString(), "usuario.benchmark", "gestor", 1700000000L, 1700003600L);
+        p.jti = UUID.randomUUID().toString();
+        String token = TokenCodec.encode(p, signer);
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+        ObjectMapper mapper = new ObjectMapper();
+
+        measure("codec: TokenCodec.encode", 200_000, () -> sink += TokenCodec.encode(p, signer).length());
+        measure("codec: TokenCodec decode+readClaims", 500_000, () -> {
+            byte[] claims = new byte[TokenCodec.decodedLength(payload.length())];
+            int len = TokenCodec.decodeBase64(payload, 0, payload.length(), claims);
+            sink += TokenCodec.readClaims(claims, 0, len).exp;
+        });
+        measure("codec: Base64 + Jackson", 500_000, () -> {
+            byte[] claims = Base64.getUrlDecoder().decode(payload);
+            sink += mapper.readValue(claims, JwtUtil.TokenPayload.class).exp;
+        });
+    }
+
+    /** Custo do PBKDF2 e paridade entre senha de usuário existente e o hash dummy. */
+    static void pbkdf2() throws Exception {
+        int iterations = 310_000;
+        String stored = PasswordUtil.pbkdf2("senha-correta", iterations);
+        String dummy = PasswordUtil.pbkdf2(UUID.randomUUID().toString(), iterations);
+        measure("pbkdf2: verify usuário existente", 20, () -> sink += PasswordUtil.verify("senha-errada", stored) ? 1 : 0);
+        measure("pbkdf2: verify hash dummy", 20, () -> sink += PasswordUtil.verify("senha-errada", dummy) ? 1 : 0);
+    }
+
+    interface Op {
+        void run() throws Exception;
+    }
+
+    private static void measure(String name, int ops, Op op) throws Exception {
+        for(int i = 0; i < Math.max(1, ops / 5); i++) op.run(); // aquecimento
+        long start = System.nanoTime();
+        for(int i = 0; i < ops; i++) op.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-40s %12.1f ns/op  (%d ops em %d ms)%n",
+            name, (double) elapsed / ops, ops, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.projeto.utils;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class HmacSignerTest {
+
+    private static final byte[] KEY = "segredo-de-teste".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testSignMatchesFreshMac() throws Exception {
+        HmacSigner signer = new HmacSigner(KEY, 2);
+        Random random = new Random(7);
+        for(int n = 0; n < 200; n += 13) {
+            byte[] data = new byte[n];
+            random.nextBytes(data);
+            byte[] expected = freshMac().doFinal(data);
+
+            assertThat(Arrays.equals(signer.sign(data), expected), is(true));
+            assertThat(signer.verify(data, 0, data.length, expected), is(true));
+        }
+    }
+
+    @Test
+    public void testSignRespectsOffsetAndLength() throws Exception {
+        HmacSigner signer = new HmacSigner(KEY, 1);
+        byte[] data = "xxcabeçalho.payloadyy".getBytes(StandardCharsets.UTF_8);
+        byte[] slice = Arrays.copyOfRange(data, 2, data.length - 2);
+
+        assertThat(Arrays.equals(signer.sign(data, 2, slice.length), freshMac().doFinal(slice)), is(true));
+    }
+
+    @Test
+    public void testVerifyRejectsWrongSignatures() throws Exception {
+        HmacSigner signer = new HmacSigner(KEY, 1);
+        byte[] data = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        byte[] good = freshMac().doFinal(data);
+
+        assertThat(signer.verify(data, 0, data.length, null), is(false));
+        assertThat(signer.verify(data, 0, data.length, Arrays.copyOf(good, good.length - 1)), is(false));
+        assertThat(signer.verify(data, 0, data.length, Arrays.copyOf(good, good.length + 1)), is(false));
+        byte[] flipped = good.clone();
+        flipped[0] ^= 1;
+        assertThat(signer.verify(data, 0, data.length, flipped), is(false));
+        // Outra chave, mesmo conteúdo
+        HmacSigner other = new HmacSigner("outra".getBytes(StandardCharsets.UTF_8), 1);
+        assertThat(other.verify(data, 0, data.length, good), is(false));
+    }
+
+    @Test
+    public void testConcurrentUseOfSmallPool() throws Exception {
+        // Mais threads que instâncias no pool: nenhum Mac pode ser compartilhado no meio de um cálculo
+        HmacSigner signer = new HmacSigner(KEY, 2);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                int seed = t;
+                tasks.add(() -> {
+                    Mac reference = freshMac();
+                    Random random = new Random(seed);
+                    for(int i = 0; i < 2000; i++) {
+                        byte[] data = new byte[1 + random.nextInt(256)];
+                        random.nextBytes(data);
+                        if(!Arrays.equals(signer.sign(data), reference.doFinal(data))) return false;
+                    }
+                    return true;
+                });
+            }
+            for(Future<Boolean> f : pool.invokeAll(tasks)) {
+                assertThat(f.get(), is(true));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Mac freshMac() throws Exception {
+        Mac mac = Mac.getInstance(HmacSigner.ALGORITHM);
+        mac.init(new SecretKeySpec(KEY, HmacSigner.ALGORITHM));
+        return mac;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.projeto.utils;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Toda rejeição do token precisa chegar ao log de auditoria com o path da
+ * requisição. O teste espera a thread de auditoria drenar o ring buffer e
+ * confere o que foi escrito no logger {@code audit}.
+ */
+@QuarkusTest
+public class JwtUtilAuditTest {
+
+    @Inject
+    JwtUtil jwtUtil;
+
+    @ConfigProperty(name = "app.jwt.secret")
+    String secret;
+
+    @Test
+    public void testEveryRejectionIsAudited() throws Exception {
+        String path = "/api/audit-" + UUID.randomUUID();
+        HmacSigner signer = new HmacSigner(secret.getBytes(StandardCharsets.UTF_8), 1);
+        String sig = "A".repeat(TokenCodec.SIGNATURE_CHARS);
+
+        List<String> malformed = List.of(
+            "",                                             // em branco
+            "semPontos",                                    // sem separadores
+            "a.b.c.d",                                      // pontos demais
+            "a.b.curta",                                    // assinatura com tamanho errado
+            "a.b." + "+".repeat(TokenCodec.SIGNATURE_CHARS), // assinatura fora do Base64URL
+            "é.b." + sig,                                    // entrada não-ASCII
+            signed(signer, "{\"id\":"));                    // claims que não fazem parse
+
+        Capture capture = new Capture(path);
+        Logger audit = Logger.getLogger("audit");
+        audit.addHandler(capture);
+        try {
+            for(String token : malformed) {
+                assertThat(token, jwtUtil.validateToken(token, path), is(nullValue()));
+            }
+            assertThat(jwtUtil.validateToken(TokenCodec.HEADER + ".e30." + sig, path), is(nullValue()));
+
+            List<String> lines = capture.await(malformed.size() + 1);
+            assertThat(lines.stream().filter(l -> l.contains("reason=malformed_token")).count(), is((long) malformed.size()));
+            assertThat(lines.stream().filter(l -> l.contains("reason=invalid_signature")).count(), is(1L));
+        } finally {
+            audit.removeHandler(capture);
+        }
+    }
+
+    private static String signed(HmacSigner signer, String claims) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        String input = TokenCodec.HEADER + "." + enc.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return input + "." + enc.encodeToString(signer.sign(input.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /** Guarda as linhas de auditoria de um path específico. */
+    private static final class Capture extends Handler {
+        private final String path;
+        private final List<String> lines = new ArrayList<>();
+
+        Capture(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public synchronized void publish(LogRecord record) {
+            String msg = record.getMessage();
+            if(msg != null && msg.contains("path=" + path + " ")) lines.add(msg);
+        }
+
+        // Espera limitada: a escrita é assíncrona
+        synchronized List<String> await(int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while(lines.size() < expected && System.currentTimeMillis() < deadline) {
+                wait(50);
+            }
+            return new ArrayList<>(lines);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.projeto.utils;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@QuarkusTest
+public class TokenCacheTest {
+
+    @Inject
+    TokenCache cache;
+
+    @ConfigProperty(name = "app.jwt.cache.max-size")
+    int maxSize;
+
+    @BeforeEach
+    public void limpar() {
+        cache.clear();
+    }
+
+    @Test
+    public void testHit() {
+        JwtUtil.TokenPayload payload = payload(3600);
+        cache.put("h.p.assinatura1", payload);
+
+        long hits = cache.hits();
+        assertThat(cache.get("h.p.assinatura1"), is(sameInstance(payload)));
+        assertThat(cache.hits(), is(hits + 1));
+    }
+
+    @Test
+    public void testSameSignatureDifferentTokenMisses() {
+        JwtUtil.TokenPayload payload = payload(3600);
+        cache.put("h.p.assinatura2", payload);
+
+        // Mesmo segmento de assinatura, cabeçalho/payload diferentes
+        long misses = cache.misses();
+        assertThat(cache.get("h.outro.assinatura2"), is(nullValue()));
+        assertThat(cache.misses(), is(misses + 1));
+        // A entrada original continua válida
+        assertThat(cache.get("h.p.assinatura2"), is(sameInstance(payload)));
+    }
+
+    @Test
+    public void testExpiredEntryIsDropped() {
+        cache.put("h.p.assinatura3", payload(-1));
+
+        assertThat(cache.get("h.p.assinatura3"), is(nullValue()));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testScheduledSweepDropsExpired() {
+        cache.put("h.p.vencido", payload(-1));
+        cache.put("h.p.valido", payload(3600));
+
+        cache.evictExpired();
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get("h.p.valido"), is(notNullValue()));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        long evictions = cache.evictions();
+        for(int i = 0; i < maxSize * 2; i++) {
+            cache.put("h.p." + UUID.randomUUID(), payload(3600));
+        }
+        assertThat(cache.size(), is(lessThanOrEqualTo(maxSize)));
+        assertThat(cache.evictions(), is(greaterThan(evictions)));
+    }
+
+    private static JwtUtil.TokenPayload payload(long expiresIn) {
+        long now = System.currentTimeMillis() / 1000;
+        JwtUtil.TokenPayload p = new JwtUtil.TokenPayload(UUID.randomUUID().toString(), "cache", "funcionario", now, now + expiresIn);
+        p.jti = UUID.randomUUID().toString();
+        return p;
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.projeto.utils;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Confere o codec contra as implementações da JDK ({@link Base64} e
+ * {@link Mac}), que são a referência do formato.
+ */
+public class TokenCodecTest {
+
+    private static final byte[] KEY = "segredo-de-teste".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testEncodeMatchesJdk() throws Exception {
+        JwtUtil.TokenPayload p = new JwtUtil.TokenPayload("f3b1c2d4-0000-4000-8000-000000000001", "joão \"jj\" \\ \t😀", "gestor", 1700000000L, 1700003600L);
+        p.jti = "jti-1";
+
+        String token = TokenCodec.encode(p, new HmacSigner(KEY, 1));
+        String[] parts = token.split("\\.");
+        assertThat(parts.length, is(3));
+
+        Base64.Decoder dec = Base64.getUrlDecoder();
+        assertThat(new String(dec.decode(parts[0]), StandardCharsets.UTF_8), is("{\"alg\":\"HS256\",\"typ\":\"JWT\"}"));
+
+        Mac mac = Mac.getInstance(HmacSigner.ALGORITHM);
+        mac.init(new SecretKeySpec(KEY, HmacSigner.ALGORITHM));
+        byte[] expected = mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        assertThat(parts[2], is(Base64.getUrlEncoder().withoutPadding().encodeToString(expected)));
+
+        byte[] claims = dec.decode(parts[1]);
+        JwtUtil.TokenPayload back = TokenCodec.readClaims(claims, 0, claims.length);
+        assertThat(back.id, is(p.id));
+        assertThat(back.username, is(p.username));
+        assertThat(back.role, is(p.role));
+        assertThat(back.iat, is(p.iat));
+        assertThat(back.exp, is(p.exp));
+        assertThat(back.jti, is(p.jti));
+    }
+
+    @Test
+    public void testBase64RoundTripMatchesJdk() {
+        Random random = new Random(42);
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        for(int n = 0; n <= 100; n++) {
+            byte[] data = new byte[n];
+            random.nextBytes(data);
+
+            byte[] out = new byte[TokenCodec.encodedLength(n)];
+            int end = TokenCodec.encodeBase64(data, 0, n, out, 0);
+            String encoded = new String(out, 0, end, StandardCharsets.US_ASCII);
+            assertThat(encoded, is(enc.encodeToString(data)));
+
+            byte[] decoded = new byte[TokenCodec.decodedLength(encoded.length())];
+            int len = TokenCodec.decodeBase64(encoded, 0, encoded.length(), decoded);
+            assertThat(len, is(n));
+            assertThat(Arrays.equals(decoded, data), is(true));
+        }
+    }
+
+    @Test
+    public void testMalformedBase64IsRejected() {
+        byte[] dst = new byte[64];
+        // Comprimento impossível em Base64
+        assertThat(TokenCodec.decodeBase64("abcde", 0, 5, dst), is(-1));
+        // Alfabeto padrão, padding e não-ASCII não são Base64URL
+        assertThat(TokenCodec.decodeBase64("ab+/", 0, 4, dst), is(-1));
+        assertThat(TokenCodec.decodeBase64("ab==", 0, 4, dst), is(-1));
+        assertThat(TokenCodec.decodeBase64("abé1", 0, 4, dst), is(-1));
+        // Não cabe no destino
+        assertThat(TokenCodec.decodeBase64("abcdabcd", 0, 8, new byte[5]), is(-1));
+    }
+
+    @Test
+    public void testMalformedClaimsAreRejected() {
+        for(String json : new String[] {
+                "", "{", "{\"id\":", "{\"id\":\"x\"", "{\"id\":\"x\"}lixo",
+                "{\"iat\":}", "{\"iat\":99999999999999999999}", "{\"id\":\"\\q\"}", "[1,2]" }) {
+            byte[] b = json.getBytes(StandardCharsets.UTF_8);
+            assertThat(json, TokenCodec.readClaims(b, 0, b.length), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testUnknownClaimsAreIgnored() {
+        byte[] b = "{\"x\":{\"y\":[1,\"}\"]},\"role\":\"admin\",\"z\":null}".getBytes(StandardCharsets.UTF_8);
+        JwtUtil.TokenPayload p = TokenCodec.readClaims(b, 0, b.length);
+        assertThat(p, is(notNullValue()));
+        assertThat(p.role, is("admin"));
+    }
+}